@@ -0,0 +1,44 @@
+package com.api_gateway.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+import com.commonsecurity.JwtVerifier;
+import com.commonsecurity.RevocationList;
+
+@Configuration
+public class GatewaySecurityConfig {
+
+    @Bean
+    public CachedJwtVerifier jwtVerifier(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.cache.max-size:50000}") long maxSize,
+            @Value("${jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds, RevocationList revocationList) {
+        return new CachedJwtVerifier(new JwtVerifier(secret), maxSize, Duration.ofSeconds(maxTtlSeconds),
+                revocationList);
+    }
+
+    // ✅ Kept current by RevocationPoller from AUTH-SERVICE's revocation feed
+    @Bean
+    public RevocationList revocationList(@Value("${security.revocations.expected:100000}") int expected,
+            @Value("${security.revocations.false-positive-rate:0.01}") double falsePositiveRate) {
+        return new RevocationList(expected, falsePositiveRate);
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Bean
+    public IdentityHeaders identityHeaders(@Value("${security.identity.secret}") String secret) {
+        return new IdentityHeaders(secret);
+    }
+}
@@ -0,0 +1,78 @@
+package com.api_gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code capacity} tokens refilled at {@code refillPerSecond},
+ * kept as a single "theoretical arrival time" (the GCRA form of a token bucket):
+ * one CAS on one long per request, with no lock and no refill thread. The bucket
+ * is full whenever that time is at or before now; each request pushes it one
+ * refill interval further, and a request is refused when that would put it more
+ * than {@code capacity} intervals ahead of now.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refillPerSecond > 0");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    public Decision tryConsume(long nowNanos) {
+        while (true) {
+            long current = arrival.get();
+            long base = current - nowNanos > 0 ? current : nowNanos; // Overflow-safe max for nanoTime values
+            long next = base + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return new Decision(false, capacity, 0, ahead - burstNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new Decision(true, capacity, (burstNanos - ahead) / intervalNanos, 0);
+            }
+        }
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public static final class Decision {
+        private final boolean allowed;
+        private final long limit;
+        private final long remaining;
+        private final long retryAfterNanos;
+
+        Decision(boolean allowed, long limit, long remaining, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+    }
+}
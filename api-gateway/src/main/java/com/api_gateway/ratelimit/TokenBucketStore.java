@@ -0,0 +1,50 @@
+package com.api_gateway.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory buckets keyed by route and caller. A bucket left idle for
+ * {@code gateway.ratelimit.idle-expiry-seconds} is dropped; that must be at least
+ * as long as a bucket takes to refill, because a new bucket starts full.
+ */
+@Component
+public class TokenBucketStore {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.ratelimit.max-buckets:1000000}")
+    private long maxBuckets;
+
+    @Value("${gateway.ratelimit.idle-expiry-seconds:600}")
+    private long idleExpirySeconds;
+
+    private Cache<String, TokenBucket> buckets;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofSeconds(idleExpirySeconds))
+                .build();
+        meterRegistry.gauge("gateway.ratelimit.buckets", buckets, Cache::estimatedSize);
+    }
+
+    public TokenBucket bucket(String key, long capacity, double refillPerSecond) {
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPerSecond, System.nanoTime()));
+    }
+
+    public long getIdleExpirySeconds() {
+        return idleExpirySeconds;
+    }
+}
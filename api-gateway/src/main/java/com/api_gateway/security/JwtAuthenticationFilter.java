@@ -0,0 +1,115 @@
+package com.api_gateway.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the bearer token once at the edge and forwards the caller's identity
+ * as signed X-Auth-* headers. Invalid or expired tokens get a 401 here, except on
+ * the refresh and logout endpoints, where an expired access token is the normal
+ * case: there the bad token is dropped and the request goes on without identity.
+ * Requests without a token pass through, because public routes are still decided
+ * by each service. Whatever X-Auth-* headers the client sent are always dropped.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    // Verified subject, for filters that key on the caller (e.g. rate limiting)
+    public static final String PRINCIPAL_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".principal";
+
+    // Authenticated by the refresh token in the body, not the access token
+    private static final Set<String> TOKEN_OPTIONAL_PATHS = Set.of("/auth/refresh", "/auth/logout");
+
+    @Autowired
+    private CachedJwtVerifier jwtVerifier;
+
+    @Autowired
+    private IdentityHeaders identityHeaders;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        Claims claims = null;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                claims = jwtVerifier.verify(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                if (TOKEN_OPTIONAL_PATHS.contains(exchange.getRequest().getPath().value())) {
+                    return forward(exchange, chain, null, true);
+                }
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+                return exchange.getResponse().setComplete();
+            }
+        }
+
+        return forward(exchange, chain, claims, false);
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, Claims verified,
+            boolean dropToken) {
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    if (dropToken) {
+                        headers.remove(HttpHeaders.AUTHORIZATION);
+                    }
+                    List<String> spoofed = new ArrayList<>();
+                    for (String name : headers.keySet()) {
+                        if (name.regionMatches(true, 0, IdentityHeaders.PREFIX, 0, IdentityHeaders.PREFIX.length())) {
+                            spoofed.add(name);
+                        }
+                    }
+                    spoofed.forEach(headers::remove);
+                    if (verified != null) {
+                        addIdentity(headers, verified);
+                    }
+                }))
+                .build();
+        if (verified != null && verified.getSubject() != null) {
+            forwarded.getAttributes().put(PRINCIPAL_ATTRIBUTE, verified.getSubject());
+        }
+        return chain.filter(forwarded);
+    }
+
+    private void addIdentity(HttpHeaders headers, Claims claims) {
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (email == null || claims.getExpiration() == null) {
+            return; // Nothing trustworthy to forward; the service falls back to the bearer token
+        }
+        long expires = claims.getExpiration().getTime() / 1000;
+        headers.set(IdentityHeaders.EMAIL, email);
+        if (role != null) {
+            headers.set(IdentityHeaders.ROLE, role);
+        }
+        if (claims.getId() != null) {
+            headers.set(IdentityHeaders.TOKEN_ID, claims.getId());
+        }
+        headers.set(IdentityHeaders.EXPIRES, String.valueOf(expires));
+        headers.set(IdentityHeaders.SIGNATURE, identityHeaders.sign(email, role, claims.getId(), expires));
+    }
+
+    // Before routing and any per-route filter
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+}
@@ -0,0 +1,52 @@
+package com.api_gateway.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.commonsecurity.RevocationBatch;
+import com.commonsecurity.RevocationList;
+import com.commonsecurity.RevocationSync;
+
+import jakarta.annotation.PostConstruct;
+
+// ✅ Pulls new revocations from AUTH-SERVICE; if it is down, the last known list keeps being enforced
+@Component
+public class RevocationPoller {
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${security.revocations.overlap:100}")
+    private long overlap;
+
+    private RevocationSync sync;
+
+    @PostConstruct
+    public void init() {
+        WebClient webClient = webClientBuilder.build();
+        // Runs on the scheduler thread, never on the event loop, so blocking here is fine
+        sync = new RevocationSync(revocationList, since -> webClient.get()
+                .uri("http://AUTH-SERVICE/auth/revocations?since={since}", since)
+                .retrieve()
+                .bodyToMono(RevocationBatch.class)
+                .block(Duration.ofSeconds(5)), overlap);
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocations.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            sync.poll();
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not refresh revocation list (" + revocationList.size() + " known): "
+                    + e.getMessage());
+        }
+    }
+}
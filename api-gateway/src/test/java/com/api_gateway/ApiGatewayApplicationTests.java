@@ -3,7 +3,7 @@ package com.api_gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "security.identity.secret=test-identity-secret")
 class ApiGatewayApplicationTests {
 
 	@Test
@@ -0,0 +1,41 @@
+package com.api_gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.discovery.DiscoveryClientRouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest(properties = "security.identity.secret=test-identity-secret")
+class RouteCoverageTest {
+
+    @Autowired
+    private RouteDefinitionLocator routeDefinitionLocator;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void everyRouteIsRateLimited() {
+        List<RouteDefinition> routes = routeDefinitionLocator.getRouteDefinitions().collectList().block();
+
+        assertFalse(routes.isEmpty());
+        for (RouteDefinition route : routes) {
+            assertTrue(route.getFilters().stream().anyMatch(f -> "TokenBucketRateLimit".equals(f.getName())),
+                    "Route " + route.getId() + " has no TokenBucketRateLimit filter");
+        }
+    }
+
+    // Locator routes (/order-service/**, ...) are generated from Eureka and would carry no limiter
+    @Test
+    void discoveryLocatorIsOff() {
+        assertTrue(context.getBeansOfType(DiscoveryClientRouteDefinitionLocator.class).isEmpty());
+    }
+}
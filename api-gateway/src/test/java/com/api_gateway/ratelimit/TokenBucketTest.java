@@ -0,0 +1,61 @@
+package com.api_gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(5, 2, now);
+
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            TokenBucket.Decision decision = bucket.tryConsume(now);
+            assertTrue(decision.isAllowed());
+            assertEquals(remaining, decision.getRemaining());
+        }
+        TokenBucket.Decision refused = bucket.tryConsume(now);
+        assertFalse(refused.isAllowed());
+        assertEquals(SECOND / 2, refused.getRetryAfterNanos());
+
+        assertTrue(bucket.tryConsume(now + SECOND / 2).isAllowed());
+        assertFalse(bucket.tryConsume(now + SECOND / 2).isAllowed());
+        // Idle long enough to refill completely, but never beyond capacity
+        assertEquals(4, bucket.tryConsume(now + 60 * SECOND).getRemaining());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1_000, 0.001, now); // Effectively no refill during the test
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (bucket.tryConsume(now).isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        pool.shutdown();
+
+        assertEquals(1_000, allowed.get());
+    }
+}
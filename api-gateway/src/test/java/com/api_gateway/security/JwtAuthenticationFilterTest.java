@@ -0,0 +1,116 @@
+package com.api_gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+import com.commonsecurity.JwtVerifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Mono;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "mysecretmysecretmysecretmysecret";
+
+    private final IdentityHeaders identityHeaders = new IdentityHeaders("internal-identity-secret");
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtVerifier",
+                new CachedJwtVerifier(new JwtVerifier(SECRET), 100, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(filter, "identityHeaders", identityHeaders);
+    }
+
+    @Test
+    void forwardsSignedIdentityForValidToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders/all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECRET))
+                .header("X-Auth-Role", "ADMIN"));
+
+        filter.filter(exchange, chain).block();
+
+        ServerHttpRequest request = forwarded.get().getRequest();
+        HttpHeaders headers = request.getHeaders();
+        assertEquals("alice@example.com", headers.getFirst(IdentityHeaders.EMAIL));
+        assertEquals(1, headers.get(IdentityHeaders.ROLE).size());
+        assertEquals("CUSTOMER", headers.getFirst(IdentityHeaders.ROLE));
+        assertEquals("token-1", headers.getFirst(IdentityHeaders.TOKEN_ID));
+        assertTrue(identityHeaders.verify(headers.getFirst(IdentityHeaders.EMAIL), headers.getFirst(IdentityHeaders.ROLE),
+                headers.getFirst(IdentityHeaders.TOKEN_ID), headers.getFirst(IdentityHeaders.EXPIRES), headers.getFirst(IdentityHeaders.SIGNATURE)));
+        assertEquals("alice@example.com", forwarded.get().getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders/all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("anothersecretanothersecretanother")));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void stripsClientIdentityHeadersWithoutToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/all")
+                .header("X-Auth-Email", "admin@example.com")
+                .header("x-auth-signature", "forged"));
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertNull(headers.getFirst(IdentityHeaders.EMAIL));
+        assertNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+    }
+
+    @Test
+    void dropsBadTokenOnRefreshInsteadOfRejecting() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/refresh")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("anothersecretanothersecretanother")));
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(exchange.getResponse().getStatusCode());
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+    }
+
+    private static String token(String secret) {
+        return Jwts.builder()
+                .setSubject("alice@example.com")
+                .setId("token-1")
+                .claim("role", "CUSTOMER")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
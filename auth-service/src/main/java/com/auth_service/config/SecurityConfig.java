@@ -1,5 +1,6 @@
 package com.auth_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,14 +18,16 @@ public class SecurityConfig {
             .csrf().disable() // Disable CSRF for simplicity (enable it in production)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/register", "/auth/login").permitAll() // Allow public access
+                .requestMatchers("/auth/refresh", "/auth/logout", "/auth/revocations").permitAll() // Refresh/logout carry their own tokens; the feed only lists token IDs
                 .anyRequest().authenticated() // Secure other endpoints
             )
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS); // Use stateless authentication
         
         return http.build();
     }
+    // ✅ Cost comes from config; PasswordHasher rehashes stored hashes made with a different cost
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -2,19 +2,30 @@ package com.auth_service.controller;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.auth_service.login.LoginRequest;
+import com.auth_service.login.RefreshRequest;
 import com.auth_service.model.User;
-import com.auth_service.repository.UserRepository;
-import com.auth_service.security.JwtUt;
 import com.auth_service.service.AuthService;
+import com.auth_service.service.TokenService;
+import com.commonsecurity.RevocationBatch;
 
 @RestController
 @RequestMapping("/auth")
@@ -22,38 +33,65 @@ public class AuthController {
 	
     @Autowired
     private AuthService authService;
-    
-    @Autowired
-    private UserRepository userRepository;
 
     @Autowired
-    private JwtUt JwtUt;
+    private TokenService tokenService;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
+    @Value("${auth.bcrypt.retry-after-seconds:1}")
+    private int retryAfterSeconds;
 
+    // ✅ Async like login: hashing the new password must not hold a Tomcat thread
     @PostMapping("/register")
-    public User registerUser(@RequestBody User user) {
+    public CompletableFuture<User> registerUser(@RequestBody User user) {
         return authService.registerUser(user);
     }
 
     @PostMapping("/register-admin")
-    public User registerAdmin(@RequestBody User user) {
+    public CompletableFuture<User> registerAdmin(@RequestBody User user) {
         return authService.registerAdmin(user);
     }
 
+    // ✅ Async: the Tomcat thread is released while BCrypt runs on the bounded hashing pool
     @PostMapping("/login")
-    public Map<String, String> login(@RequestBody LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail());
-        
-        if (user == null || !passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
-
-        String token = JwtUt.generateToken(user.getEmail(), user.getRole().name());
-
-        Map<String, String> response = new HashMap<>();
-        response.put("token", token);
-        return response;
+    public CompletableFuture<Map<String, Object>> login(@RequestBody LoginRequest loginRequest) {
+        return authService.loginUser(loginRequest.getEmail(), loginRequest.getPassword());
+    }
+
+    // ✅ New access token without BCrypt; the presented refresh token is rotated
+    @PostMapping("/refresh")
+    public Map<String, Object> refresh(@RequestBody RefreshRequest request) {
+        return tokenService.refresh(request.getRefreshToken());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        tokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Incremental feed polled by the verifying services; pass back "latest" as since
+    @GetMapping("/revocations")
+    public RevocationBatch revocations(@RequestParam(defaultValue = "0") long since,
+                                       @RequestParam(defaultValue = "1000") int limit) {
+        return tokenService.revocationsSince(since, limit);
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<Map<String, String>> invalidToken(BadCredentialsException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
+    // ✅ Hashing pool saturated: shed load instead of queueing without bound
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> hashingSaturated(TaskRejectedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many concurrent logins, retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
     }
 }
@@ -0,0 +1,8 @@
+package com.auth_service.login;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,14 @@
+package com.auth_service.repository;
+
+import com.auth_service.model.Role;
+
+// Login projection: only the columns covered by idx_users_email
+public interface UserCredentials {
+    Long getId();
+
+    String getEmail();
+
+    String getPassword();
+
+    Role getRole();
+}
@@ -2,11 +2,15 @@ package com.auth_service.security;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,6 +19,10 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUt {
     private static final String SECRET_KEY = "mysecretmysecretmysecretmysecret"; // At least 32 chars
     private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes()); // Correct key initialization
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build(); // ✅ Built once, thread-safe
+
+    @Value("${auth.tokens.access-ttl-seconds:900}")
+    private long accessTtlSeconds;
 
     private Date convertToDate(LocalDateTime localDateTime) {
         return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant()); // No casting needed
@@ -22,9 +30,10 @@ public class JwtUt {
 
     public String generateToken(String email, String role) {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expirationTime = now.plusHours(1); // Token valid for 1 hour
+        LocalDateTime expirationTime = now.plusSeconds(accessTtlSeconds); // ✅ Short-lived, renewed via refresh token
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti: what revocation lists refer to
                 .setSubject(email)
                 .claim("role", role)
                 .setIssuedAt(convertToDate(now)) // Convert LocalDateTime to Date
@@ -34,35 +43,24 @@ public class JwtUt {
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parse(token).getSubject();
     }
 
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parse(token).get("role", String.class);
     }
 
+    // ✅ One signature check per call instead of one per extracted claim
     public boolean validateToken(String token, String email) {
-        return extractEmail(token).equals(email) && !isTokenExpired(token);
+        Claims claims = parse(token);
+        return claims.getSubject().equals(email) && !claims.getExpiration().before(new Date());
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
 
-        return expiration.before(new Date());
+    public Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
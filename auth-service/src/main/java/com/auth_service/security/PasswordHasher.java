@@ -0,0 +1,105 @@
+package com.auth_service.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small fixed pool with a bounded queue so a login storm costs at
+ * most {@code auth.bcrypt.threads} cores and never holds request threads. When the
+ * queue is full, submission fails fast with {@link TaskRejectedException}, which
+ * the controller turns into 503 with Retry-After.
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int strength;
+
+    @Value("${auth.bcrypt.threads:4}")
+    private int threads;
+
+    @Value("${auth.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+    private Timer matchTimer;
+    private Timer encodeTimer;
+    private Counter rejections;
+    private Counter rehashes;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        matchTimer = meterRegistry.timer("auth.bcrypt.duration", "operation", "matches");
+        encodeTimer = meterRegistry.timer("auth.bcrypt.duration", "operation", "encode");
+        rejections = meterRegistry.counter("auth.bcrypt.rejections");
+        rehashes = meterRegistry.counter("auth.bcrypt.rehashes");
+        meterRegistry.gauge("auth.bcrypt.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("auth.bcrypt.active", executor, ThreadPoolTaskExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // ✅ Cost is the two digits after the version prefix, e.g. $2a$10$...
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public void recordRehash() {
+        rehashes.increment();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(work), executor);
+        } catch (TaskRejectedException e) {
+            rejections.increment();
+            throw e;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.auth_service.service;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import com.auth_service.model.Role;
 import com.auth_service.model.User;
+import com.auth_service.repository.UserCredentials;
 import com.auth_service.repository.UserRepository;
-import com.auth_service.security.JwtUt;
+import com.auth_service.security.PasswordHasher;
 
 @Service
 public class AuthService {
@@ -15,28 +21,61 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private JwtUt jwtUt;
+    private TokenService tokenService;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHasher passwordHasher;
 
-    public User registerUser(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole(Role.CUSTOMER); // Default role is CUSTOMER
-        return userRepository.save(user);
+    // Database work after a hash completes runs here, so the small bcrypt pool only ever hashes
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    public CompletableFuture<User> registerUser(User user) {
+        return register(user, Role.CUSTOMER); // Default role is CUSTOMER
     }
 
-    public String loginUser(String email, String password) {
-        User user = userRepository.findByEmail(email);
-        if (user != null && passwordEncoder.matches(password, user.getPassword())) {
-            return jwtUt.generateToken(user.getEmail(), user.getRole().name());
+    // ✅ BCrypt runs on the hashing pool; the request thread is released until the token pair is ready
+    public CompletableFuture<Map<String, Object>> loginUser(String email, String password) {
+        UserCredentials user = userRepository.findCredentialsByEmail(email);
+        if (user == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Invalid Credentials"));
         }
-        throw new RuntimeException("Invalid Credentials");
+        return passwordHasher.matches(password, user.getPassword()).thenApplyAsync(matched -> {
+            if (!matched) {
+                throw new RuntimeException("Invalid Credentials");
+            }
+            if (passwordHasher.needsRehash(user.getPassword())) {
+                rehash(user, password);
+            }
+            return tokenService.issue(user.getId(), user.getEmail(), user.getRole().name());
+        }, taskExecutor);
     }
 
-    public User registerAdmin(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole(Role.ADMIN); // Assign ADMIN role explicitly
-        return userRepository.save(user);
+    public CompletableFuture<User> registerAdmin(User user) {
+        return register(user, Role.ADMIN); // Assign ADMIN role explicitly
     }
-}
 
+    // ✅ Hash on the bcrypt pool, save on the task executor; no thread blocks waiting for either
+    private CompletableFuture<User> register(User user, Role role) {
+        return passwordHasher.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            user.setRole(role);
+            return userRepository.save(user);
+        }, taskExecutor);
+    }
+
+    // Best effort and off the login path: if the pool is busy the next login tries again
+    private void rehash(UserCredentials user, String password) {
+        try {
+            passwordHasher.encode(password).thenAcceptAsync(newHash -> {
+                if (userRepository.replacePasswordHash(user.getId(), user.getPassword(), newHash) == 1) {
+                    passwordHasher.recordRehash();
+                    System.out.println("🔄 Rehashed password for user " + user.getId() + " with the configured cost");
+                }
+            }, taskExecutor);
+        } catch (TaskRejectedException e) {
+            System.out.println("⚠️ Hashing pool busy, rehash for user " + user.getId() + " deferred");
+        }
+    }
+}
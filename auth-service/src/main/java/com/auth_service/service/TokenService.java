@@ -0,0 +1,158 @@
+package com.auth_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import com.auth_service.model.RefreshToken;
+import com.auth_service.model.RevokedToken;
+import com.auth_service.model.User;
+import com.auth_service.repository.RefreshTokenRepository;
+import com.auth_service.repository.RevokedTokenRepository;
+import com.auth_service.repository.UserRepository;
+import com.auth_service.security.JwtUt;
+import com.commonsecurity.RevocationBatch;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Access/refresh token pairs and revocation. Refresh tokens rotate on every use;
+ * presenting an already-used one means it was copied, so all of that user's
+ * refresh tokens are dropped. Revoked access tokens are published as a feed that
+ * the verifying services poll into their {@code RevocationList}.
+ */
+@Service
+public class TokenService {
+
+    @Autowired
+    private JwtUt jwtUt;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${auth.tokens.refresh-ttl-days:30}")
+    private long refreshTtlDays;
+
+    @Value("${auth.tokens.revocations-page-size:1000}")
+    private int revocationsPageSize;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public Map<String, Object> issue(Long userId, String email, String role) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(null, userId, sha256(refreshToken),
+                LocalDateTime.now().plusDays(refreshTtlDays), null));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUt.generateToken(email, role));
+        response.put("refreshToken", refreshToken);
+        response.put("expiresIn", jwtUt.getAccessTtlSeconds());
+        return response;
+    }
+
+    public Map<String, Object> refresh(String refreshToken) {
+        RefreshToken stored = refreshToken != null ? refreshTokenRepository.findByTokenHash(sha256(refreshToken)) : null;
+        if (stored == null || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (refreshTokenRepository.markUsed(stored.getId(), LocalDateTime.now()) != 1) {
+            int dropped = refreshTokenRepository.deleteByUserId(stored.getUserId());
+            System.out.println("⚠️ Refresh token reused for user " + stored.getUserId() + ", dropped " + dropped
+                    + " refresh tokens");
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return issue(user.getId(), user.getEmail(), user.getRole().name());
+    }
+
+    // ✅ Kills the presented access token everywhere (via the revocation feed) and ends this refresh session
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUt.parse(accessToken);
+                if (claims.getId() != null) {
+                    revoke(claims.getId(), LocalDateTime.ofInstant(claims.getExpiration().toInstant(),
+                            ZoneId.systemDefault()));
+                }
+            } catch (JwtException e) {
+                // Expired or forged: nothing that could still be used
+            }
+        }
+        if (refreshToken != null) {
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(sha256(refreshToken));
+            if (stored != null) {
+                refreshTokenRepository.delete(stored);
+            }
+        }
+    }
+
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (revokedTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(new RevokedToken(null, jti, expiresAt, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // Revoked concurrently; the unique jti keeps one row
+        }
+    }
+
+    public RevocationBatch revocationsSince(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, revocationsPageSize));
+        List<RevokedToken> rows = revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(since, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<RevocationBatch.Entry> entries = new ArrayList<>(Math.min(rows.size(), pageSize));
+        long latest = since;
+        for (RevokedToken row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            entries.add(new RevocationBatch.Entry(row.getJti(), row.getExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond()));
+            latest = row.getId();
+        }
+        return new RevocationBatch(entries, latest, hasMore);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.tokens.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int refresh = refreshTokenRepository.deleteExpired(now);
+        int revoked = revokedTokenRepository.deleteExpired(now);
+        if (refresh + revoked > 0) {
+            System.out.println("🔄 Purged " + refresh + " expired refresh tokens and " + revoked + " revocations");
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Schema as previously generated by Hibernate auto-DDL.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    mobile   VARCHAR(255),
+    address  VARCHAR(255),
+    role     VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
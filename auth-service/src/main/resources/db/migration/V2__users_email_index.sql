@@ -0,0 +1,3 @@
+-- Login looks users up by email on every call. Covers the credentials projection
+-- (id, email, password, role) so the lookup never touches the clustered row.
+CREATE INDEX idx_users_email ON users (email, password, role);
@@ -0,0 +1,24 @@
+-- Refresh tokens are opaque; only their SHA-256 is stored. A used row is kept
+-- until it expires so that presenting it again is detected as reuse.
+CREATE TABLE refresh_tokens (
+    id         BIGINT   NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT   NOT NULL,
+    token_hash CHAR(64) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    used_at    DATETIME NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_refresh_tokens_hash (token_hash),
+    KEY idx_refresh_tokens_user (user_id),
+    KEY idx_refresh_tokens_expires (expires_at)
+) ENGINE = InnoDB;
+
+-- Revoked access tokens by jti. id doubles as the feed position for GET /auth/revocations?since=
+CREATE TABLE revoked_tokens (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    jti        VARCHAR(36) NOT NULL,
+    expires_at DATETIME    NOT NULL,
+    revoked_at DATETIME    NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_revoked_tokens_jti (jti),
+    KEY idx_revoked_tokens_expires (expires_at)
+) ENGINE = InnoDB;
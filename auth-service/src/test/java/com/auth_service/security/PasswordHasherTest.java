@@ -0,0 +1,72 @@
+package com.auth_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "passwordEncoder", new BCryptPasswordEncoder(6));
+        ReflectionTestUtils.setField(hasher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hasher, "strength", 6);
+        ReflectionTestUtils.setField(hasher, "threads", 1);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", 2);
+        hasher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.stop();
+    }
+
+    @Test
+    void matchesOffTheCallerThread() {
+        String hash = hasher.encode("secret").join();
+
+        assertTrue(hasher.matches("secret", hash).join());
+        assertFalse(hasher.matches("wrong", hash).join());
+        assertEquals(3, meterRegistry.get("auth.bcrypt.duration").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        String hash = new BCryptPasswordEncoder(12).encode("secret"); // Slow enough to keep the single worker busy
+        List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+
+        assertThrows(TaskRejectedException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                accepted.add(hasher.matches("secret", hash));
+            }
+        });
+        assertEquals(3, accepted.size()); // One running, two queued
+        assertEquals(1.0, meterRegistry.get("auth.bcrypt.rejections").counter().count());
+        CompletableFuture.allOf(accepted.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Test
+    void flagsHashesWithAnotherCost() {
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(hasher.needsRehash("not-a-bcrypt-hash"));
+    }
+}
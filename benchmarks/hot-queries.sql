@@ -0,0 +1,83 @@
+-- Hot-query benchmark for the Flyway index migrations (order-service V3, auth-service V2, user-service V2).
+--
+-- Seeds a deterministic dataset in a scratch schema, runs each hot query with
+-- EXPLAIN ANALYZE before the indexes exist, adds the indexes exactly as the
+-- migrations do, and runs the same queries again. Needs MySQL 8.0.18+.
+--
+--   mysql -u root -p < benchmarks/hot-queries.sql
+--
+-- Compare the "actual time" of the top plan node in each before/after pair.
+
+DROP DATABASE IF EXISTS bench_hot_queries;
+CREATE DATABASE bench_hot_queries;
+USE bench_hot_queries;
+
+SET SESSION cte_max_recursion_depth = 2000000;
+
+CREATE TABLE orders (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    user_id     BIGINT,
+    product_id  BIGINT,
+    quantity    INT    NOT NULL,
+    total_price DOUBLE NOT NULL,
+    order_date  DATETIME(6)
+) ENGINE = InnoDB;
+
+CREATE TABLE payments (
+    id             BIGINT       NOT NULL PRIMARY KEY,
+    order_id       BIGINT       NOT NULL UNIQUE,
+    amount         DOUBLE       NOT NULL,
+    payment_status VARCHAR(255) NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_date   DATETIME(6)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id       BIGINT NOT NULL PRIMARY KEY,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    mobile   VARCHAR(255),
+    address  VARCHAR(255),
+    role     VARCHAR(255)
+) ENGINE = InnoDB;
+
+-- 1M orders over 50k users; 1M payments, 1% PENDING; 200k users
+INSERT INTO orders
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+SELECT n, n % 50000, n % 5000, 1 + n % 5, 10.0 + n % 90, NOW(6) - INTERVAL (n % 86400) SECOND FROM seq;
+
+INSERT INTO payments
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+SELECT n, n, 10.0 + n % 90, IF(n % 100 = 0, 'PENDING', 'SUCCESS'), UUID(), NOW(6) FROM seq;
+
+INSERT INTO users
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200000)
+SELECT n, CONCAT('user', n), CONCAT('user', n, '@example.com'),
+       '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z9Dp5Ff6dVhQ2K2Nt1z2GJ7W', '9999999999', 'Somewhere',
+       IF(n % 1000 = 0, 'ADMIN', 'CUSTOMER') FROM seq;
+
+ANALYZE TABLE orders, payments, users;
+
+-- ---------------------------------------------------------------- before
+EXPLAIN ANALYZE SELECT * FROM orders WHERE user_id = 4242;
+EXPLAIN ANALYZE SELECT * FROM orders WHERE user_id = 4242 AND id > 500000 ORDER BY id LIMIT 100;
+EXPLAIN ANALYZE SELECT id, order_id, payment_date FROM payments
+    WHERE payment_status = 'PENDING' AND id > 0 ORDER BY id LIMIT 200;
+EXPLAIN ANALYZE SELECT id, email, password, role FROM users WHERE email = 'user123456@example.com';
+
+-- ---------------------------------------------------------------- indexes (as in the migrations)
+CREATE INDEX idx_orders_user_id_id ON orders (user_id, id);
+CREATE INDEX idx_payments_status_id ON payments (payment_status, id, order_id, payment_date);
+CREATE INDEX idx_users_email ON users (email, password, role);
+
+ANALYZE TABLE orders, payments, users;
+
+-- ---------------------------------------------------------------- after
+EXPLAIN ANALYZE SELECT * FROM orders WHERE user_id = 4242;
+EXPLAIN ANALYZE SELECT * FROM orders WHERE user_id = 4242 AND id > 500000 ORDER BY id LIMIT 100;
+EXPLAIN ANALYZE SELECT id, order_id, payment_date FROM payments
+    WHERE payment_status = 'PENDING' AND id > 0 ORDER BY id LIMIT 200;
+EXPLAIN ANALYZE SELECT id, email, password, role FROM users WHERE email = 'user123456@example.com';
+
+DROP DATABASE bench_hot_queries;
@@ -0,0 +1,117 @@
+package com.commonsecurity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Remembers the claims of tokens that already passed verification, keyed by the
+ * SHA-256 of the token so raw bearer tokens are never held in memory. An entry
+ * lives until the token's own expiry or {@code maxTtl}, whichever comes first,
+ * and the cache is bounded by size. Failed verifications are not cached.
+ *
+ * <p>When a {@link RevocationList} is given, every call (cache hit or not) also
+ * checks the token's jti against it.
+ *
+ * <p>The returned {@link Claims} instance is shared between requests presenting
+ * the same token and must be treated as read-only.
+ */
+public class CachedJwtVerifier {
+
+    private final JwtVerifier verifier;
+    private final Cache<String, Claims> cache;
+    private final RevocationList revocationList;
+
+    public CachedJwtVerifier(JwtVerifier verifier, long maximumSize, Duration maxTtl) {
+        this(verifier, maximumSize, maxTtl, null);
+    }
+
+    public CachedJwtVerifier(JwtVerifier verifier, long maximumSize, Duration maxTtl, RevocationList revocationList) {
+        this.verifier = verifier;
+        this.revocationList = revocationList;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @throws JwtException when the token is not in the cache and fails verification
+     * @throws TokenRevokedException when the token has been revoked
+     */
+    public Claims verify(String token) {
+        String key = digest(token);
+        Claims claims = cache.getIfPresent(key);
+        if (claims == null || isExpired(claims)) {
+            claims = verifier.verify(token);
+            cache.put(key, claims);
+        }
+        if (revocationList != null && revocationList.isRevoked(claims.getId())) {
+            throw new TokenRevokedException(claims.getId());
+        }
+        return claims;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Belt and braces: the expiry policy already drops entries at exp, this guards the boundary
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Mandatory in every JRE
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+        private final long maxTtlNanos;
+
+        private TokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remaining = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.commonsecurity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the AUTH-SERVICE revocation feed ({@code GET /auth/revocations?since=}).
+ * {@code latest} is the feed position of the last entry, to pass back as {@code since}.
+ */
+public class RevocationBatch {
+
+    private List<Entry> entries = new ArrayList<>();
+    private long latest;
+    private boolean hasMore;
+
+    public RevocationBatch() {
+    }
+
+    public RevocationBatch(List<Entry> entries, long latest, boolean hasMore) {
+        this.entries = entries;
+        this.latest = latest;
+        this.hasMore = hasMore;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public long getLatest() {
+        return latest;
+    }
+
+    public void setLatest(long latest) {
+        this.latest = latest;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public static class Entry {
+        private String jti;
+        private long expiresAt; // Epoch seconds; after this the token is dead anyway and the entry can go
+
+        public Entry() {
+        }
+
+        public Entry(String jti, long expiresAt) {
+            this.jti = jti;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public void setJti(String jti) {
+            this.jti = jti;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.commonsecurity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token IDs (jti) as seen by a verifying service. {@link #isRevoked} first
+ * asks a Bloom filter, so for the common case of a token that was never revoked
+ * the check is a handful of bit reads with no lock. Only a Bloom positive consults
+ * the exact set. Entries are dropped once the token would have expired anyway;
+ * the filter is then rebuilt, since bits cannot be cleared.
+ */
+public class RevocationList {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // jti -> token exp, epoch seconds
+    private final double falsePositiveRate;
+    private int capacity;
+    private volatile BloomFilter bloom;
+    private volatile long cursor;
+
+    public RevocationList(int expectedRevocations, double falsePositiveRate) {
+        this.capacity = Math.max(expectedRevocations, 16);
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloom = new BloomFilter(capacity, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && bloom.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    public synchronized void revoke(String jti, long expiresEpochSeconds) {
+        if (revoked.put(jti, expiresEpochSeconds) != null) {
+            return;
+        }
+        if (revoked.size() > capacity) {
+            capacity *= 2; // Keep the false-positive rate near its target as the list grows
+            rebuild();
+        } else {
+            bloom.put(jti);
+        }
+    }
+
+    /**
+     * Applies one feed page and advances {@link #cursor()}. Re-applying entries is harmless.
+     */
+    public synchronized void apply(RevocationBatch batch) {
+        for (RevocationBatch.Entry entry : batch.getEntries()) {
+            revoke(entry.getJti(), entry.getExpiresAt());
+        }
+        cursor = Math.max(cursor, batch.getLatest());
+    }
+
+    public synchronized int purgeExpired() {
+        long now = System.currentTimeMillis() / 1000;
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int purged = before - revoked.size();
+        if (purged > 0) {
+            rebuild();
+        }
+        return purged;
+    }
+
+    public long cursor() {
+        return cursor;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Readers keep using the old filter until the new one, which has every current entry, is published
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        bloom = rebuilt;
+    }
+}
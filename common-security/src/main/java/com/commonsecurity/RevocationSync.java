@@ -0,0 +1,44 @@
+package com.commonsecurity;
+
+import java.util.function.LongFunction;
+
+/**
+ * Pulls new revocations into a {@link RevocationList}. Each service supplies the
+ * fetch over its own load-balanced client and calls {@link #poll()} on a schedule.
+ *
+ * <p>Feed positions are auto-increment IDs, and concurrent inserts can commit
+ * out of ID order. Each poll therefore re-reads a small overlap behind the cursor,
+ * so a row that committed late is still picked up.
+ */
+public class RevocationSync {
+
+    private final RevocationList revocationList;
+    private final LongFunction<RevocationBatch> fetcher;
+    private final long overlap;
+
+    public RevocationSync(RevocationList revocationList, LongFunction<RevocationBatch> fetcher, long overlap) {
+        this.revocationList = revocationList;
+        this.fetcher = fetcher;
+        this.overlap = overlap;
+    }
+
+    /**
+     * @return number of feed entries received, including re-read ones
+     */
+    public int poll() {
+        int received = 0;
+        long since = Math.max(0, revocationList.cursor() - overlap);
+        RevocationBatch batch;
+        do {
+            batch = fetcher.apply(since);
+            if (batch == null) {
+                break;
+            }
+            revocationList.apply(batch);
+            received += batch.getEntries().size();
+            since = batch.getLatest();
+        } while (batch.isHasMore());
+        revocationList.purgeExpired();
+        return received;
+    }
+}
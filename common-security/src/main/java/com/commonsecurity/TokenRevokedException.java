@@ -0,0 +1,11 @@
+package com.commonsecurity;
+
+import io.jsonwebtoken.JwtException;
+
+// Signature and expiry are fine, but the token's jti is on the revocation list
+public class TokenRevokedException extends JwtException {
+
+    public TokenRevokedException(String jti) {
+        super("Token " + jti + " has been revoked");
+    }
+}
@@ -0,0 +1,75 @@
+package com.commonsecurity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+class CachedJwtVerifierTest {
+
+    private static final String SECRET = "mysecretmysecretmysecretmysecret";
+
+    private final CachedJwtVerifier verifier = new CachedJwtVerifier(new JwtVerifier(SECRET), 100, Duration.ofMinutes(5));
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = token("alice@example.com", 60_000);
+
+        assertSame(verifier.verify(token), verifier.verify(token));
+        assertEquals("CUSTOMER", verifier.verify(token).get("role", String.class));
+        assertEquals(2, verifier.stats().hitCount());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() {
+        RevocationList revocations = new RevocationList(100, 0.01);
+        CachedJwtVerifier checked = new CachedJwtVerifier(new JwtVerifier(SECRET), 100, Duration.ofMinutes(5),
+                revocations);
+        String token = token("alice@example.com", 60_000);
+        String jti = checked.verify(token).getId();
+
+        revocations.revoke(jti, System.currentTimeMillis() / 1000 + 60);
+        assertThrows(TokenRevokedException.class, () -> checked.verify(token));
+    }
+
+    @Test
+    void rejectedTokensAreNotCached() {
+        String token = token("alice@example.com", 60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> verifier.verify(tampered));
+        assertThrows(JwtException.class, () -> verifier.verify(tampered));
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    void cachedEntryDoesNotOutliveTokenExpiry() throws InterruptedException {
+        String token = token("bob@example.com", 1_000);
+        verifier.verify(token);
+
+        Thread.sleep(2_100); // exp has second precision
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+    }
+
+    static String token(String subject, long ttlMillis) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .claim("role", "CUSTOMER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
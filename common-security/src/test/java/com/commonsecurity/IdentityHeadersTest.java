@@ -0,0 +1,42 @@
+package com.commonsecurity;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IdentityHeadersTest {
+
+    private final IdentityHeaders headers = new IdentityHeaders("internal-identity-secret");
+
+    @Test
+    void acceptsOnlyUnmodifiedUnexpiredIdentity() {
+        long expires = System.currentTimeMillis() / 1000 + 60;
+        String signature = headers.sign("alice@example.com", "CUSTOMER", "jti-1", expires);
+
+        assertTrue(headers.verify("alice@example.com", "CUSTOMER", "jti-1", String.valueOf(expires), signature));
+        assertFalse(headers.verify("alice@example.com", "ADMIN", "jti-1", String.valueOf(expires), signature));
+        assertFalse(headers.verify("mallory@example.com", "CUSTOMER", "jti-1", String.valueOf(expires), signature));
+        assertFalse(headers.verify("alice@example.com", "CUSTOMER", "jti-1", String.valueOf(expires + 1), signature));
+        assertFalse(headers.verify("alice@example.com", "CUSTOMER", "jti-2", String.valueOf(expires), signature));
+        assertFalse(headers.verify("alice@example.com", "CUSTOMER", null, String.valueOf(expires), signature));
+        assertFalse(new IdentityHeaders("other-secret").verify("alice@example.com", "CUSTOMER",
+                "jti-1", String.valueOf(expires), signature));
+        assertFalse(headers.verify("alice@example.com", "CUSTOMER", "jti-1", String.valueOf(expires), "not base64!"));
+    }
+
+    @Test
+    void rejectsExpiredIdentity() {
+        long expired = System.currentTimeMillis() / 1000 - 1;
+        String signature = headers.sign("alice@example.com", "CUSTOMER", "jti-1", expired);
+
+        assertFalse(headers.verify("alice@example.com", "CUSTOMER", "jti-1", String.valueOf(expired), signature));
+    }
+
+    @Test
+    void refusesMissingSecret() {
+        assertThrows(IllegalArgumentException.class, () -> new IdentityHeaders(""));
+        assertThrows(IllegalArgumentException.class, () -> new IdentityHeaders(null));
+    }
+}
@@ -0,0 +1,87 @@
+package com.commonsecurity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of authenticating a bearer token:
+ * <ul>
+ * <li>{@code rebuildParserPerRequest} - what the filters did before (new key and parser every call)</li>
+ * <li>{@code prebuiltParser} - shared {@link JwtVerifier}, HMAC still checked every call</li>
+ * <li>{@code cachedVerifier} - {@link CachedJwtVerifier} hit: SHA-256 of the token plus a map lookup</li>
+ * <li>{@code cachedVerifierWithRevocations} - same, checked against 100k revoked jtis</li>
+ * </ul>
+ * Run with {@code mvn -P benchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerifierBenchmark {
+
+    private static final String SECRET = "mysecretmysecretmysecretmysecret";
+
+    private String token;
+    private JwtVerifier verifier;
+    private CachedJwtVerifier cachedVerifier;
+    private CachedJwtVerifier checkedVerifier;
+
+    @Setup
+    public void setUp() {
+        token = CachedJwtVerifierTest.token("alice@example.com", TimeUnit.HOURS.toMillis(1));
+        verifier = new JwtVerifier(SECRET);
+        cachedVerifier = new CachedJwtVerifier(verifier, 10_000, Duration.ofMinutes(5));
+        cachedVerifier.verify(token);
+
+        RevocationList revocations = new RevocationList(100_000, 0.01);
+        long expiresAt = System.currentTimeMillis() / 1000 + 3600;
+        for (int i = 0; i < 100_000; i++) {
+            revocations.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        checkedVerifier = new CachedJwtVerifier(verifier, 10_000, Duration.ofMinutes(5), revocations);
+        checkedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims rebuildParserPerRequest() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims prebuiltParser() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerifier() {
+        return cachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerifierWithRevocations() {
+        return checkedVerifier.verify(token);
+    }
+}
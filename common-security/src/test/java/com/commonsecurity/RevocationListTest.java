@@ -0,0 +1,74 @@
+package com.commonsecurity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class RevocationListTest {
+
+    private static final long IN_AN_HOUR = System.currentTimeMillis() / 1000 + 3600;
+
+    @Test
+    void bloomFilterStaysNearItsFalsePositiveRate() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("revoked-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(i >= 10_000 || bloom.mightContain("revoked-" + i));
+            if (bloom.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void growsAndPurgesWithoutLosingEntries() {
+        RevocationList list = new RevocationList(16, 0.01);
+        for (int i = 0; i < 100; i++) {
+            list.revoke("jti-" + i, IN_AN_HOUR);
+        }
+        list.revoke("expired", System.currentTimeMillis() / 1000 - 1);
+
+        assertEquals(1, list.purgeExpired());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(list.isRevoked("jti-" + i));
+        }
+        assertFalse(list.isRevoked("expired"));
+        assertFalse(list.isRevoked("never-revoked"));
+        assertFalse(list.isRevoked(null));
+    }
+
+    @Test
+    void syncPagesThroughFeedAndRereadsOverlap() {
+        RevocationList list = new RevocationList(100, 0.01);
+        List<Long> requested = new ArrayList<>();
+        // Feed positions 1..10, served five at a time
+        RevocationSync sync = new RevocationSync(list, since -> {
+            requested.add(since);
+            List<RevocationBatch.Entry> entries = new ArrayList<>();
+            long position = since;
+            while (position < 10 && entries.size() < 5) {
+                position++;
+                entries.add(new RevocationBatch.Entry("jti-" + position, IN_AN_HOUR));
+            }
+            return new RevocationBatch(entries, position, position < 10);
+        }, 3);
+
+        assertEquals(10, sync.poll());
+        assertEquals(10, list.cursor());
+        assertTrue(list.isRevoked("jti-1") && list.isRevoked("jti-10"));
+
+        assertEquals(3, sync.poll()); // Overlap: positions 8..10 are read again
+        assertEquals(List.of(0L, 5L, 7L), requested);
+        assertEquals(10, list.cursor());
+    }
+}
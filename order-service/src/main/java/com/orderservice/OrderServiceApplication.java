@@ -1,12 +1,21 @@
 package com.orderservice;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
+
+import com.orderservice.config.DownstreamConcurrencyLimiter;
+import com.orderservice.config.DownstreamCredentials;
+import com.orderservice.config.DownstreamTimeouts;
 @SpringBootApplication
 @EnableAspectJAutoProxy
 @EnableScheduling
@@ -18,7 +27,32 @@ public class OrderServiceApplication {
 
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory httpRequestFactory,
+            DownstreamTimeouts downstreamTimeouts,
+            @Value("${orders.downstream.payment-service.max-concurrency:64}") int paymentMaxConcurrency,
+            @Value("${orders.downstream.product-service.max-concurrency:64}") int productMaxConcurrency,
+            @Value("${orders.downstream.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+            @Value("${orders.http.wire-format:cbor}") String wireFormat,
+            @Value("${orders.downstream.product-service.username:order-service}") String productUsername,
+            @Value("${orders.downstream.product-service.password}") String productPassword,
+            @Value("${orders.downstream.payment-service.username:order-service}") String paymentUsername,
+            @Value("${orders.downstream.payment-service.password}") String paymentPassword) {
+        // ✅ Pooled Apache HttpClient 5 instead of SimpleClientHttpRequestFactory
+        RestTemplate restTemplate = new RestTemplate(httpRequestFactory);
+        // ✅ Added before @LoadBalanced customization, so they see the logical service ID
+        restTemplate.getInterceptors().add(new DownstreamConcurrencyLimiter(
+                Map.of("PAYMENT-SERVICE", paymentMaxConcurrency, "PRODUCT-SERVICE", productMaxConcurrency),
+                acquireTimeoutMs));
+        restTemplate.getInterceptors().add(downstreamTimeouts);
+        // ✅ PRODUCT-SERVICE writes and PAYMENT-SERVICE's service endpoints require a service account; no default passwords
+        restTemplate.getInterceptors().add(new DownstreamCredentials()
+                .register("PRODUCT-SERVICE", productUsername, productPassword)
+                .register("PAYMENT-SERVICE", paymentUsername, paymentPassword));
+        // ✅ CBOR first: request bodies are written as CBOR and Accept prefers it; JSON stays as a fallback
+        if ("cbor".equalsIgnoreCase(wireFormat)) {
+            restTemplate.getMessageConverters().removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+            restTemplate.getMessageConverters().add(0, new MappingJackson2CborHttpMessageConverter());
+        }
+        return restTemplate;
     }
 }
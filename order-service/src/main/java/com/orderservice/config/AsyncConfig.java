@@ -0,0 +1,48 @@
+package com.orderservice.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${orders.placement.pool-size:8}")
+    private int poolSize;
+
+    @Value("${orders.placement.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${orders.placement.max-in-flight:10000}")
+    private int maxInFlight;
+
+    // ✅ Runs payment + stock steps of async order placement off the request thread
+    @Bean(name = "orderPlacementExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor platformOrderPlacementExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-placement-");
+        // Reject instead of running on the caller so the request thread is never held
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // ✅ spring.threads.virtual.enabled=true: one virtual thread per placement, capped by in-flight count
+    // Pressure on PAYMENT-SERVICE itself is bounded by DownstreamConcurrencyLimiter
+    @Bean(name = "orderPlacementExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualOrderPlacementExecutor() {
+        return new BoundedVirtualThreadExecutor("order-placement-", maxInFlight);
+    }
+}
@@ -0,0 +1,37 @@
+package com.orderservice.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Starts every task on its own virtual thread but rejects new tasks once
+ * {@code maxInFlight} are running, mirroring the AbortPolicy of the platform pool.
+ */
+public class BoundedVirtualThreadExecutor implements TaskExecutor {
+
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxInFlight) {
+        this.permits = new Semaphore(maxInFlight);
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Too many tasks in flight");
+        }
+        Thread thread = threadFactory.newThread(() -> {
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+        thread.start();
+    }
+}
@@ -0,0 +1,37 @@
+package com.orderservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PAYMENT_DETAILS = "paymentDetails";
+
+    @Value("${orders.cache.payment-details.max-size:10000}")
+    private long paymentDetailsMaxSize;
+
+    @Value("${orders.cache.payment-details.ttl-seconds:600}")
+    private long paymentDetailsTtlSeconds;
+
+    // ✅ Bounded + TTL; stats feed cache.gets/cache.puts/cache.evictions on /actuator/metrics
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PAYMENT_DETAILS, Caffeine.newBuilder()
+                .maximumSize(paymentDetailsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(paymentDetailsTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
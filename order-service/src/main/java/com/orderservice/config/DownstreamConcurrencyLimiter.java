@@ -0,0 +1,107 @@
+package com.orderservice.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Caps concurrent calls per downstream service. Runs ahead of the load balancer
+ * interceptor, so the request host is still the logical service ID.
+ * With virtual threads nothing else bounds how many callers hit a service at once.
+ * A permit is held until the response is closed, because the body is still being
+ * streamed (and the pooled connection is still busy) after execute returns.
+ */
+public class DownstreamConcurrencyLimiter implements ClientHttpRequestInterceptor {
+
+    private final Map<String, Semaphore> limits;
+    private final long acquireTimeoutMs;
+
+    public DownstreamConcurrencyLimiter(Map<String, Integer> maxConcurrency, long acquireTimeoutMs) {
+        this.limits = new HashMap<>();
+        maxConcurrency.forEach((service, max) -> limits.put(service.toUpperCase(), new Semaphore(max)));
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        Semaphore limit = host != null ? limits.get(host.toUpperCase()) : null;
+        if (limit == null) {
+            return execution.execute(request, body);
+        }
+
+        try {
+            if (!limit.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many concurrent calls to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + host, e);
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            limit.release();
+            throw e;
+        }
+        return new PermitReleasingResponse(response, limit);
+    }
+
+    // Gives the permit back exactly once, on the first close
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore limit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    limit.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.orderservice.config;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Adds HTTP Basic credentials for downstream services that require them. Like
+ * {@link DownstreamTimeouts} it runs ahead of the load balancer, so the host is
+ * still the logical service ID and credentials never leak to other services.
+ */
+public class DownstreamCredentials implements ClientHttpRequestInterceptor {
+
+    private final Map<String, String> authorizations = new HashMap<>();
+
+    public DownstreamCredentials register(String serviceId, String username, String password) {
+        authorizations.put(serviceId.toUpperCase(), HttpHeaders.encodeBasicAuth(username, password, null));
+        return this;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        String credentials = host != null ? authorizations.get(host.toUpperCase()) : null;
+        if (credentials != null && !request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            request.getHeaders().setBasicAuth(credentials);
+        }
+        return execution.execute(request, body);
+    }
+}
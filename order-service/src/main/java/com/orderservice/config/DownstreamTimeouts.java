@@ -0,0 +1,65 @@
+package com.orderservice.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Applies a per-downstream {@link RequestConfig}. The load balancer rewrites
+ * {@code http://PAYMENT-SERVICE/...} to an instance address before the request
+ * factory runs, so the interceptor remembers the logical service ID for the
+ * current call and the context factory looks it up.
+ */
+public class DownstreamTimeouts implements ClientHttpRequestInterceptor, BiFunction<HttpMethod, URI, HttpContext> {
+
+    private final Map<String, RequestConfig> configs = new HashMap<>();
+    private final RequestConfig defaultConfig;
+    private final ThreadLocal<String> currentService = new ThreadLocal<>();
+
+    public DownstreamTimeouts(RequestConfig defaultConfig) {
+        this.defaultConfig = defaultConfig;
+    }
+
+    public DownstreamTimeouts register(String serviceId, RequestConfig config) {
+        configs.put(serviceId.toUpperCase(), config);
+        return this;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        String previous = currentService.get();
+        currentService.set(host != null ? host.toUpperCase() : null);
+        try {
+            return execution.execute(request, body);
+        } finally {
+            if (previous == null) {
+                currentService.remove();
+            } else {
+                currentService.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public HttpContext apply(HttpMethod method, URI uri) {
+        String service = currentService.get();
+        RequestConfig config = service != null ? configs.getOrDefault(service, defaultConfig) : defaultConfig;
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(config);
+        return context;
+    }
+}
@@ -0,0 +1,104 @@
+package com.orderservice.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${orders.http.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${orders.http.pool.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${orders.http.pool.idle-evict-ms:30000}")
+    private long idleEvictMs;
+
+    @Value("${orders.http.pool.time-to-live-ms:300000}")
+    private long timeToLiveMs;
+
+    @Value("${orders.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${orders.http.read-timeout-ms:5000}")
+    private long defaultReadTimeoutMs;
+
+    @Value("${orders.http.pool-acquire-timeout-ms:1000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${orders.downstream.payment-service.read-timeout-ms:3000}")
+    private long paymentReadTimeoutMs;
+
+    @Value("${orders.downstream.product-service.read-timeout-ms:2000}")
+    private long productReadTimeoutMs;
+
+    // ✅ Keep-alive pool shared by every downstream; max-per-route applies to each service instance
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .disableAutomaticRetries() // Resilience4j and the reconciler own retries
+                .build();
+    }
+
+    @Bean
+    public DownstreamTimeouts downstreamTimeouts() {
+        return new DownstreamTimeouts(requestConfig(defaultReadTimeoutMs))
+                .register("PAYMENT-SERVICE", requestConfig(paymentReadTimeoutMs))
+                .register("PRODUCT-SERVICE", requestConfig(productReadTimeoutMs));
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory httpRequestFactory(CloseableHttpClient httpClient,
+            DownstreamTimeouts downstreamTimeouts) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setHttpContextFactory(downstreamTimeouts);
+        return factory;
+    }
+
+    // ✅ httpcomponents.httpclient.pool.* gauges on /actuator/metrics
+    @Bean
+    public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpConnectionManager, "order-service-downstream");
+    }
+
+    private RequestConfig requestConfig(long readTimeoutMs) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+    }
+}
@@ -3,21 +3,31 @@ package com.orderservice.controller;
 import java.util.List;
 import java.util.Map;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.orderservice.dto.OrderBatchRequest;
 import com.orderservice.model.Order;
 import com.orderservice.service.OrderService;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private OrderService orderService;
 
@@ -27,6 +37,47 @@ public class OrderController {
         return orderService.placeOrder(order);
     }
 
+    // ✅ Batch Place Order: many line items, one payment call and one stock call
+    @PostMapping("/place-batch")
+    public ResponseEntity<Map<String, Object>> placeOrderBatch(@RequestBody OrderBatchRequest request) {
+        return orderService.placeOrderBatch(request);
+    }
+
+    // ✅ Async Place Order: returns 202 with the order ID, payment + stock continue in background
+    @PostMapping("/place-async")
+    public ResponseEntity<Map<String, Object>> placeOrderAsync(@RequestBody Order order) {
+        Map<String, Object> response = orderService.placeOrderAsync(order);
+        if ("OUT_OF_STOCK".equals(response.get("paymentStatus"))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    // ✅ Event-driven Place Order: stock hold, then order + outbox record in one transaction; 409 when out of stock
+    @PostMapping("/place-event")
+    public ResponseEntity<Map<String, Object>> placeOrderViaOutbox(@RequestBody Order order) {
+        return orderService.placeOrderViaOutbox(order);
+    }
+
+    // ✅ Placement status; with waitMs the request is parked until the worker finishes (long poll)
+    @GetMapping("/{orderId}/status")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> getPlacementStatus(@PathVariable Long orderId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(Math.min(Math.max(waitMs, 1), 30000));
+        CompletableFuture<Map<String, Object>> inFlight = waitMs > 0 ? orderService.awaitPlacement(orderId) : null;
+
+        if (inFlight == null) {
+            result.setResult(ResponseEntity.ok(orderService.getPlacementStatus(orderId)));
+            return result;
+        }
+
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(orderService.getPlacementStatus(orderId))));
+        inFlight.whenComplete((status, ex) -> result.setResult(ex == null
+                ? ResponseEntity.ok(status)
+                : ResponseEntity.ok(orderService.getPlacementStatus(orderId))));
+        return result;
+    }
+
     // ✅ Fetch All Orders
     @GetMapping("/all")
     public ResponseEntity<List<Order>> getAllOrders() {
@@ -39,6 +90,32 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
     }
 
+    // ✅ Keyset-paginated listing: pass nextCursor back as "after"
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getOrdersPage(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(null, after, size));
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<Map<String, Object>> getOrdersPageByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) Long after, @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(userId, after, size));
+    }
+
+    // ✅ Streaming mode (Accept: application/x-ndjson): one JSON order per line, constant memory
+    @GetMapping(value = "/all", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> orderService.streamOrders(null, out));
+    }
+
+    @GetMapping(value = "/user/{userId}", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> orderService.streamOrders(userId, out));
+    }
+
     // ✅ Fetch Order Details with Payment Info
     @GetMapping("/{orderId}/details")
     public ResponseEntity<Map<String, Object>> getOrderWithPayment(@PathVariable Long orderId) {
@@ -0,0 +1,16 @@
+package com.orderservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Basket of line items placed with one call to /orders/place-batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+    private Long userId;
+    private List<OrderLine> items;
+}
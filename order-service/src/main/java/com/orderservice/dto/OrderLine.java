@@ -0,0 +1,14 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLine {
+    private Long productId;
+    private int quantity;
+    private double totalPrice;
+}
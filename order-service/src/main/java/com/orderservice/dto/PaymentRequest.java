@@ -0,0 +1,14 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Body sent to PAYMENT-SERVICE /payments/process and /process-batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRequest {
+    private Long orderId;
+    private double amount;
+}
@@ -0,0 +1,29 @@
+package com.orderservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Payment outcome from PAYMENT-SERVICE (process, process-batch and status/batch)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentResponse {
+    private Long id;
+    private Long orderId;
+    private Double amount;
+    private String paymentStatus;
+    private String transactionId;
+    private LocalDateTime paymentDate;
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return "SUCCESS".equals(paymentStatus);
+    }
+}
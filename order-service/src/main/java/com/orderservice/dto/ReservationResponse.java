@@ -0,0 +1,18 @@
+package com.orderservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String status;
+    private String reservationId;
+    private String expiresAt;
+    private List<Long> failedProductIds;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ One SKU line for PRODUCT-SERVICE stock updates and reservations
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItem {
+    private Long productId;
+    private int quantity;
+}
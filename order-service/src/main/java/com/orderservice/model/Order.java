@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,12 +22,14 @@ import lombok.Setter;
 @Table(name = "orders")
 public class Order {
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50) // pooled: lets Hibernate batch inserts
     private Long id;
     private Long userId;
     private Long productId;
     private int quantity;
     private double totalPrice;
     private LocalDateTime orderDate;    
+    private String reservationId; // Stock hold in PRODUCT-SERVICE, committed when payment succeeds
 
 }
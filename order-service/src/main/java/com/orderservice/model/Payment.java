@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,7 +24,8 @@ import lombok.Setter;
 @Table(name = "payments")
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50) // pooled: lets Hibernate batch inserts
     private Long id;
     
     @Column(name = "order_id", nullable = false, unique = true)
@@ -38,6 +40,10 @@ public class Payment {
     
     @Column(name = "payment_date")
     private LocalDateTime paymentDate;
+
+    // Set while an async placement worker owns the order (status PROCESSING)
+    @Column(name = "processing_since")
+    private LocalDateTime processingSince;
     
     
 }
\ No newline at end of file
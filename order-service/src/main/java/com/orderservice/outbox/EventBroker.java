@@ -0,0 +1,16 @@
+package com.orderservice.outbox;
+
+import java.util.List;
+
+/**
+ * Delivery side of the outbox. {@link #publish} must only return once the
+ * broker has accepted the whole batch; throwing leaves the rows unpublished
+ * so the relay retries them.
+ */
+public interface EventBroker {
+
+    String PAYMENT_EVENTS = "payment-events";
+    String STOCK_EVENTS = "stock-events";
+
+    void publish(String topic, List<OutboxMessage> messages);
+}
@@ -0,0 +1,31 @@
+package com.orderservice.outbox;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+// ✅ Posts each batch to the consuming service, which answers 2xx only after applying it durably
+@Component
+@ConditionalOnProperty(name = "orders.outbox.broker", havingValue = "http", matchIfMissing = true)
+public class HttpEventBroker implements EventBroker {
+
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            PAYMENT_EVENTS, "http://PAYMENT-SERVICE/payments/events",
+            STOCK_EVENTS, "http://PRODUCT-SERVICE/products/events");
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Override
+    public void publish(String topic, List<OutboxMessage> messages) {
+        String url = ENDPOINTS.get(topic);
+        if (url == null) {
+            throw new IllegalArgumentException("No consumer registered for topic " + topic);
+        }
+        restTemplate.postForEntity(url, messages, Void.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.orderservice.outbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Embedded broker for local runs and tests (orders.outbox.broker=in-memory).
+ * Delivery is synchronous: {@link #publish} returns once every subscriber of the
+ * topic has accepted the batch and rethrows a subscriber's exception, so the
+ * relay acknowledges and retries exactly as it does against the HTTP consumers.
+ * Batches for a topic nobody subscribed to are logged and acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.broker", havingValue = "in-memory")
+public class InMemoryEventBroker implements EventBroker {
+
+    private final Map<String, List<Consumer<List<OutboxMessage>>>> subscribers = new ConcurrentHashMap<>();
+
+    public void subscribe(String topic, Consumer<List<OutboxMessage>> subscriber) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    @Override
+    public void publish(String topic, List<OutboxMessage> messages) {
+        List<Consumer<List<OutboxMessage>>> topicSubscribers = subscribers.getOrDefault(topic, List.of());
+        if (topicSubscribers.isEmpty()) {
+            System.out.println("ℹ️ No in-memory subscriber for " + topic + ", " + messages.size() + " events acknowledged");
+            return;
+        }
+        List<OutboxMessage> batch = List.copyOf(messages);
+        for (Consumer<List<OutboxMessage>> subscriber : topicSubscribers) {
+            subscriber.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.orderservice.outbox;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Wire form of an outbox row as delivered to consumers
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    private Long eventId;
+    private String eventType;
+    private Long aggregateId;
+    private Map<String, Object> payload;
+}
@@ -0,0 +1,156 @@
+package com.orderservice.outbox;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.model.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+
+/**
+ * Drains unpublished outbox rows, one broker call per topic per batch.
+ * <p>
+ * Rows are claimed in a short FOR UPDATE SKIP LOCKED transaction that moves their
+ * {@code nextAttemptAt} past the claim timeout, so the broker calls run without row
+ * locks and other relay instances skip the claimed rows. When a topic batch fails,
+ * its events are sent one by one to isolate the event the consumer refuses. Each
+ * failed event backs off exponentially, and after {@code orders.outbox.max-attempts}
+ * it is parked: left unpublished and no longer polled, so it cannot hold up its topic.
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${orders.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orders.outbox.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    @Value("${orders.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${orders.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${orders.outbox.max-attempts:20}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<OutboxEvent> batch = claim();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<OutboxEvent>> byTopic = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byTopic.computeIfAbsent(event.getTopic(), t -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<String, List<OutboxEvent>> topic : byTopic.entrySet()) {
+            publish(topic.getKey(), topic.getValue());
+        }
+
+        // A crash before this save redelivers the batch once the claim times out; consumers dedupe by event ID
+        transactionTemplate.executeWithoutResult(tx -> outboxEventRepository.saveAll(batch));
+    }
+
+    // ✅ Row locks last only as long as this transaction, never across a broker call
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = outboxEventRepository.findDue(maxAttempts, now, PageRequest.of(0, batchSize));
+            LocalDateTime claimedUntil = now.plusNanos(claimTimeoutMs * 1_000_000);
+            due.forEach(event -> event.setNextAttemptAt(claimedUntil));
+            return outboxEventRepository.saveAll(due);
+        });
+    }
+
+    private void publish(String topic, List<OutboxEvent> events) {
+        try {
+            eventBroker.publish(topic, toMessages(events));
+            markPublished(events);
+            return;
+        } catch (Exception e) {
+            System.out.println("⚠️ Outbox publish to " + topic + " failed: " + e.getMessage());
+            if (events.size() == 1) {
+                recordFailure(events.get(0), e);
+                return;
+            }
+        }
+
+        // One event at a time, until a failure that is not the event's own fault (consumer down or erroring)
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                eventBroker.publish(topic, toMessages(List.of(event)));
+                markPublished(List.of(event));
+            } catch (Exception e) {
+                recordFailure(event, e);
+                if (!refusedEvent(e)) {
+                    events.subList(i + 1, events.size()).forEach(rest -> rest.setNextAttemptAt(null));
+                    return;
+                }
+            }
+        }
+    }
+
+    // A 4xx or an unreadable payload will fail the same way on every retry
+    private static boolean refusedEvent(Exception e) {
+        return e instanceof HttpClientErrorException || e instanceof JsonProcessingException;
+    }
+
+    private static void markPublished(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> {
+            event.setPublishedAt(now);
+            event.setNextAttemptAt(null);
+        });
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            System.out.println("⚠️ Outbox event " + event.getId() + " (" + event.getEventType() + ") parked after "
+                    + attempts + " attempts: " + e.getMessage());
+            event.setNextAttemptAt(null);
+            return;
+        }
+        long backoffMs = Math.min(maxBackoffMs, retryBackoffMs << Math.min(attempts - 1, 30));
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs * 1_000_000));
+    }
+
+    private List<OutboxMessage> toMessages(List<OutboxEvent> events) throws JsonProcessingException {
+        List<OutboxMessage> messages = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            Map<String, Object> payload = objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {});
+            messages.add(new OutboxMessage(event.getId(), event.getEventType(), event.getAggregateId(), payload));
+        }
+        return messages;
+    }
+}
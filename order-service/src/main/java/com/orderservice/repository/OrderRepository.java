@@ -1,13 +1,40 @@
 package com.orderservice.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.orderservice.model.Order;
+
+import jakarta.persistence.QueryHint;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 	List<Order> findByUserId(Long userId);
 
+	// Keyset pages: WHERE id > :after ORDER BY id LIMIT n, cost independent of page depth
+	List<Order> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+	List<Order> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Limit limit);
+
+	// Cursor-backed streams for NDJSON export; on MySQL the fetch size needs useCursorFetch=true on the JDBC URL
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("select o from Order o order by o.id")
+	Stream<Order> streamAll();
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("select o from Order o where o.userId = :userId order by o.id")
+	Stream<Order> streamByUserId(@Param("userId") Long userId);
 }
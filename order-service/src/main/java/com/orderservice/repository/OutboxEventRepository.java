@@ -0,0 +1,28 @@
+package com.orderservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.orderservice.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	// FOR UPDATE SKIP LOCKED: several relay instances can claim disjoint rows without double publishing.
+	// Parked rows (attempts >= maxAttempts) and rows claimed or backing off (nextAttemptAt > now) are skipped.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("select e from OutboxEvent e where e.publishedAt is null and e.attempts < :maxAttempts "
+			+ "and (e.nextAttemptAt is null or e.nextAttemptAt <= :now) order by e.id")
+	List<OutboxEvent> findDue(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+			Pageable pageable);
+}
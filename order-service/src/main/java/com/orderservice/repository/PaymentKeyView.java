@@ -0,0 +1,12 @@
+package com.orderservice.repository;
+
+import java.time.LocalDateTime;
+
+// Projection for the reconciler scans: only the columns covered by idx_payments_status_id
+public interface PaymentKeyView {
+	Long getId();
+
+	Long getOrderId();
+
+	LocalDateTime getPaymentDate();
+}
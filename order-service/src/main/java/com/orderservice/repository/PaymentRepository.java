@@ -1,9 +1,15 @@
 package com.orderservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.orderservice.model.Payment;
 
@@ -12,4 +18,20 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 	
 	List<Payment> findByPaymentStatus(String status);
 
+	// Keyset page: rows leave PENDING while we iterate, so page by id rather than offset
+	List<PaymentKeyView> findByPaymentStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Pageable pageable);
+
+	// Placements whose worker died or hung: PROCESSING for longer than the worker could legitimately take
+	List<PaymentKeyView> findByPaymentStatusAndProcessingSinceBeforeOrderByIdAsc(String status, LocalDateTime cutoff,
+			Pageable pageable);
+
+	// Compare-and-set on status, so concurrent reconcilers cannot settle the same order twice
+	@Modifying
+	@Transactional
+	@Query("update Payment p set p.paymentStatus = :status, p.transactionId = :transactionId, p.paymentDate = :paymentDate "
+			+ "where p.orderId = :orderId and p.paymentStatus = :expectedStatus")
+	int updateStatus(@Param("orderId") Long orderId, @Param("expectedStatus") String expectedStatus,
+			@Param("status") String status, @Param("transactionId") String transactionId,
+			@Param("paymentDate") LocalDateTime paymentDate);
+
 }
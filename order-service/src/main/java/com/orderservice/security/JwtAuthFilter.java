@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,9 +12,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+import com.commonsecurity.RevocationList;
+import com.commonsecurity.TokenRevokedException;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -28,8 +31,14 @@ import org.slf4j.LoggerFactory;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    @Autowired
+    private CachedJwtVerifier jwtVerifier;
+
+    @Autowired
+    private IdentityHeaders identityHeaders;
+
+    @Autowired
+    private RevocationList revocationList;
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
@@ -37,12 +46,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        logger.info("JwtAuthFilter: Checking authentication for request: {}", request.getRequestURI());
+        logger.debug("JwtAuthFilter: Checking authentication for request: {}", request.getRequestURI());
+
+        // ✅ Fast path: API-GATEWAY already verified the token and signed the identity it forwards
+        String signature = request.getHeader(IdentityHeaders.SIGNATURE);
+        if (signature != null) {
+            String email = request.getHeader(IdentityHeaders.EMAIL);
+            String role = request.getHeader(IdentityHeaders.ROLE);
+            String tokenId = request.getHeader(IdentityHeaders.TOKEN_ID);
+            if (identityHeaders.verify(email, role, tokenId, request.getHeader(IdentityHeaders.EXPIRES), signature)) {
+                // ✅ The gateway may not have seen the revocation yet, so the jti is checked here as well
+                if (revocationList.isRevoked(tokenId)) {
+                    logger.warn("Rejected identity headers for revoked token {}", tokenId);
+                    SecurityContextHolder.clearContext();
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                authenticate(email, role);
+                filterChain.doFilter(request, response);
+                return;
+            }
+            logger.warn("Ignoring identity headers with an invalid or expired signature");
+        }
 
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("No JWT token found in request headers");
+            logger.debug("No JWT token found in request headers");
             filterChain.doFilter(request, response);
             return;
         }
@@ -50,33 +80,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            // ✅ Cache hit is a SHA-256 plus a map lookup; the signature is only checked the first time a token is seen
+            Claims claims = jwtVerifier.verify(token);
 
             String email = claims.getSubject();
             String role = claims.get("role", String.class);
 
-            logger.info("JWT Claims: {}", claims);
-            logger.info("Extracted email from JWT: {}", email);
-            logger.info("Extracted role from JWT: {}", role);
-
-            if (role == null) {
-                logger.warn("No role found in JWT");
-                SecurityContextHolder.clearContext();
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            // Ensure role format is correct (ROLE_CUSTOMER, etc.)
-            String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-            List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(authority));
-
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(email, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            authenticate(email, role);
 
+        } catch (TokenRevokedException ex) {
+            logger.warn("Rejected revoked JWT: {}", ex.getMessage());
+            SecurityContextHolder.clearContext();
         } catch (ExpiredJwtException ex) {
             logger.error("JWT token is expired: {}", ex.getMessage());
             SecurityContextHolder.clearContext();
@@ -90,4 +104,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(String email, String role) {
+        logger.debug("Authenticated {} with role {}", email, role);
+
+        if (role == null) {
+            logger.warn("No role found in JWT");
+            SecurityContextHolder.clearContext();
+            return;
+        }
+
+        // Ensure role format is correct (ROLE_CUSTOMER, etc.)
+        String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(authority));
+
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(email, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
 }
@@ -0,0 +1,45 @@
+package com.orderservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.commonsecurity.RevocationBatch;
+import com.commonsecurity.RevocationList;
+import com.commonsecurity.RevocationSync;
+
+import jakarta.annotation.PostConstruct;
+
+// ✅ Pulls new revocations from AUTH-SERVICE; if it is down, the last known list keeps being enforced
+@Component
+public class RevocationPoller {
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${security.revocations.overlap:100}")
+    private long overlap;
+
+    private RevocationSync sync;
+
+    @PostConstruct
+    public void init() {
+        sync = new RevocationSync(revocationList, since -> restTemplate.getForObject(
+                "http://AUTH-SERVICE/auth/revocations?since={since}", RevocationBatch.class, since), overlap);
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocations.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            sync.poll();
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not refresh revocation list (" + revocationList.size() + " known): "
+                    + e.getMessage());
+        }
+    }
+}
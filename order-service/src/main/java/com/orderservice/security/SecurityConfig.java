@@ -26,6 +26,7 @@ public class SecurityConfig {
                 .requestMatchers("/orders/all").permitAll()
                 .requestMatchers("/orders/user/**").permitAll()
                 .requestMatchers("/orders/place").hasAuthority("ROLE_CUSTOMER") // 🚨 Correct role check
+                .requestMatchers("/orders/place-async", "/orders/place-event", "/orders/place-batch").hasAuthority("ROLE_CUSTOMER")
                 .anyRequest().authenticated() // 🚨 This ensures only authenticated users can access other routes
             )
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,32 @@
+package com.orderservice.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a future per order that is still being placed asynchronously so that
+ * status requests can wait for the outcome instead of polling.
+ */
+@Component
+public class OrderPlacementTracker {
+
+    private final Map<Long, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public void register(Long orderId) {
+        inFlight.put(orderId, new CompletableFuture<>());
+    }
+
+    public CompletableFuture<String> get(Long orderId) {
+        return inFlight.get(orderId);
+    }
+
+    public void complete(Long orderId, String paymentStatus) {
+        CompletableFuture<String> future = inFlight.remove(orderId);
+        if (future != null) {
+            future.complete(paymentStatus);
+        }
+    }
+}
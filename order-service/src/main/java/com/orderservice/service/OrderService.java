@@ -1,25 +1,60 @@
 package com.orderservice.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.config.CacheConfig;
+import com.orderservice.dto.OrderBatchRequest;
+import com.orderservice.dto.OrderLine;
+import com.orderservice.dto.PaymentRequest;
+import com.orderservice.dto.PaymentResponse;
+import com.orderservice.dto.ReservationCommand;
+import com.orderservice.dto.ReservationRequest;
+import com.orderservice.dto.ReservationResponse;
+import com.orderservice.dto.StockItem;
 import com.orderservice.model.Order;
+import com.orderservice.model.OutboxEvent;
 import com.orderservice.model.Payment;
+import com.orderservice.outbox.EventBroker;
 import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OutboxEventRepository;
+import com.orderservice.repository.PaymentKeyView;
 import com.orderservice.repository.PaymentRepository;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class OrderService {
@@ -32,30 +67,141 @@ public class OrderService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("orderPlacementExecutor")
+    private TaskExecutor orderPlacementExecutor;
+
+    @Autowired
+    private OrderPlacementTracker placementTracker;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     private static final String PAYMENT_SERVICE_CB = "paymentServiceCB";
+
+    // PAYMENT-SERVICE answers 400 to /payments/status/batch calls with more order IDs than this
+    private static final int MAX_STATUS_BATCH = 1000;
+
+    @Value("${orders.reconcile.chunk-size:200}")
+    private int reconcileChunkSize;
+
+    @Value("${orders.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${orders.batch.max-items:200}")
+    private int maxBatchItems;
+
+    @Value("${orders.outbox.awaiting-payment-timeout-ms:300000}")
+    private long awaitingPaymentTimeoutMs;
+
+    @Value("${orders.reservations.ttl-seconds:600}")
+    private long reservationTtlSeconds;
+
+    @Value("${orders.placement.processing-timeout-ms:300000}")
+    private long processingTimeoutMs;
     
     
-    @Transactional
+    // ✅ A chunk above the server limit would make every status call fail and the reconciler silently do nothing
+    @PostConstruct
+    void validateReconcileChunkSize() {
+        if (reconcileChunkSize < 1 || reconcileChunkSize > MAX_STATUS_BATCH) {
+            throw new IllegalStateException("orders.reconcile.chunk-size must be between 1 and " + MAX_STATUS_BATCH
+                    + ", was " + reconcileChunkSize);
+        }
+    }
+
     @Scheduled(fixedRate = 30000) // Every 30 seconds
     public void retryPendingPayments() {
-        List<Payment> pendingPayments = paymentRepository.findByPaymentStatus("PENDING");
+        forEachPaymentChunk("PENDING", this::reconcileChunk);
+    }
 
-        for (Payment payment : pendingPayments) {
-            System.out.println("🔄 Retrying payment for Order ID: " + payment.getOrderId());
+    // ✅ PROCESSING rows are skipped by the reconciler, so a worker that died (restart, OOM) or hung would strand
+    // the order forever; after orders.placement.processing-timeout-ms it is handed back as PENDING
+    @Scheduled(fixedDelayString = "${orders.placement.reclaim-interval-ms:60000}")
+    public void reclaimStalledPlacements() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(processingTimeoutMs * 1_000_000);
+        List<PaymentKeyView> stalled;
+        do {
+            stalled = paymentRepository.findByPaymentStatusAndProcessingSinceBeforeOrderByIdAsc(
+                    "PROCESSING", cutoff, PageRequest.of(0, reconcileChunkSize));
+            for (PaymentKeyView payment : stalled) {
+                // Compare-and-set: a worker that finishes meanwhile keeps its outcome
+                if (paymentRepository.updateStatus(payment.getOrderId(), "PROCESSING", "PENDING", null,
+                        LocalDateTime.now()) == 1) {
+                    System.out.println("🔄 Reclaimed stalled placement for Order " + payment.getOrderId());
+                    paymentDetailsCache().evict(payment.getOrderId());
+                    releaseHold(payment.getOrderId());
+                    placementTracker.complete(payment.getOrderId(), "PENDING");
+                }
+            }
+        } while (stalled.size() == reconcileChunkSize);
+    }
 
-            String paymentStatus = getPaymentStatusFromPaymentService(payment.getOrderId());
+    // ✅ Keyset-pages local payment rows in the given status, one chunk at a time
+    private void forEachPaymentChunk(String status, Consumer<List<PaymentKeyView>> handler) {
+        Long lastId = 0L;
+        List<PaymentKeyView> chunk;
 
-            if ("SUCCESS".equals(paymentStatus)) {
-                System.out.println("✅ Payment already SUCCESS for Order ID: " + payment.getOrderId() + ". Updating Order DB.");
+        do {
+            chunk = paymentRepository.findByPaymentStatusAndIdGreaterThanOrderByIdAsc(
+                    status, lastId, PageRequest.of(0, reconcileChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            handler.accept(chunk);
+            lastId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == reconcileChunkSize);
+    }
+
+    // ✅ One bulk status call per chunk, then retry only what PAYMENT-SERVICE has not settled
+    private void reconcileChunk(List<PaymentKeyView> chunk) {
+        List<Long> orderIds = new ArrayList<>(chunk.size());
+        for (PaymentKeyView payment : chunk) {
+            orderIds.add(payment.getOrderId());
+        }
+
+        Map<Long, PaymentResponse> remoteStatuses = getPaymentStatusesFromPaymentService(orderIds);
+        if (remoteStatuses == null) {
+            return; // PAYMENT-SERVICE unreachable, try again next tick
+        }
 
-                // 🔹 Update Order DB with latest success status
-                payment.setPaymentStatus("SUCCESS");
-                payment.setTransactionId(getTransactionIdFromPaymentService(payment.getOrderId())); // ✅ Fetch latest transaction ID
-                paymentRepository.save(payment);
+        for (PaymentKeyView payment : chunk) {
+            PaymentResponse remote = remoteStatuses.get(payment.getOrderId());
 
+            if (remote != null && remote.isSuccess()) {
+                System.out.println("✅ Payment already SUCCESS for Order ID: " + payment.getOrderId() + ". Updating Order DB.");
+                try {
+                    // Stock first: if PRODUCT-SERVICE is down the row stays PENDING and is retried next tick
+                    Order order = orderRepository.findById(payment.getOrderId())
+                            .orElseThrow(() -> new RuntimeException("Order not found"));
+                    if (!commitStock(order)) {
+                        refundPayment(order.getId());
+                        continue;
+                    }
+                } catch (Exception e) {
+                    System.out.println("⚠️ Stock commit failed for Order ID: " + payment.getOrderId() + ": " + e.getMessage());
+                    continue;
+                }
+                String transactionId = remote.getTransactionId();
+                paymentRepository.updateStatus(payment.getOrderId(), "PENDING", "SUCCESS",
+                        transactionId != null ? transactionId : "UNKNOWN", LocalDateTime.now());
+                paymentDetailsCache().evict(payment.getOrderId());
                 continue; // ✅ Stop retrying for this order
             }
 
+            System.out.println("🔄 Retrying payment for Order ID: " + payment.getOrderId());
             try {
                 processPayment(payment.getOrderId());
             } catch (Exception e) {
@@ -64,19 +210,22 @@ public class OrderService {
         }
     }
 
-    
-    private String getTransactionIdFromPaymentService(Long orderId) {
-    	try {
-            String url = "http://PAYMENT-SERVICE/payments/order/" + orderId;
-            ResponseEntity<Payment> response = restTemplate.getForEntity(url, Payment.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return response.getBody().getTransactionId(); // ✅ Fetch latest transaction ID
+    private Map<Long, PaymentResponse> getPaymentStatusesFromPaymentService(List<Long> orderIds) {
+        try {
+            String url = "http://PAYMENT-SERVICE/payments/status/batch";
+            PaymentResponse[] statuses = restTemplate.postForObject(url, orderIds, PaymentResponse[].class);
+
+            Map<Long, PaymentResponse> byOrderId = new HashMap<>();
+            if (statuses != null) {
+                for (PaymentResponse status : statuses) {
+                    byOrderId.put(status.getOrderId(), status);
+                }
             }
+            return byOrderId;
         } catch (Exception e) {
-            System.out.println("⚠️ Error fetching transaction ID: " + e.getMessage());
+            System.out.println("⚠️ Error fetching payment statuses: " + e.getMessage());
+            return null;
         }
-        return "UNKNOWN"; // Default if error occurs
     }
 
 
@@ -100,14 +249,24 @@ public class OrderService {
     // ✅ Place Order & Call Payment Service
     public ResponseEntity<Map<String, Object>> placeOrder(Order order) {
         order.setOrderDate(LocalDateTime.now());
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = saveWithReservation(order);
+        } catch (HttpClientErrorException.Conflict e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(outOfStock(order));
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("order", savedOrder);
 
         try {
             // 🔹 Call Payment Service to process payment
-            Map<String, Object> paymentResponse = processPayment(savedOrder.getId());
+            PaymentResponse paymentResponse = processPayment(savedOrder.getId());
+            if (paymentResponse != null && isUnfulfillable(paymentResponse.getPaymentStatus())) {
+                Map<String, Object> conflict = outOfStock(savedOrder);
+                conflict.put("paymentStatus", paymentResponse.getPaymentStatus());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(conflict);
+            }
 
             // ✅ Wait before first check to allow transaction to commit
             Thread.sleep(2000); // 🔴 Increased delay to ensure PAYMENT-SERVICE transaction is completed
@@ -119,19 +278,348 @@ public class OrderService {
                 savePaymentRecord(savedOrder.getId(), paymentResponse, "SUCCESS"); // ✅ Save SUCCESS directly
                 response.put("paymentStatus", "SUCCESS");
             } else {
-                savePendingPayment(savedOrder.getId()); // ✅ Save as PENDING if still not success
+                deferToReconciler(savedOrder.getId()); // ✅ Save as PENDING if still not success
                 response.put("paymentStatus", "PENDING");
             }
 
         } catch (Exception e) {
             System.out.println("⚠️ Payment failed for Order " + savedOrder.getId());
-            savePendingPayment(savedOrder.getId());
+            deferToReconciler(savedOrder.getId());
             response.put("paymentStatus", "PENDING");
         }
 
         return ResponseEntity.ok(response);
     }
 
+    // ✅ Holds stock in PRODUCT-SERVICE before the order row exists; Conflict propagates when stock is short.
+    // If the reservation endpoint is unreachable the order goes ahead without a hold; processPayment takes
+    // one before charging.
+    private Order saveWithReservation(Order order) {
+        try {
+            order.setReservationId(reserveHold(order));
+        } catch (HttpClientErrorException.Conflict e) {
+            System.out.println("⚠️ Insufficient stock for Product ID: " + order.getProductId());
+            throw e;
+        } catch (Exception e) {
+            System.out.println("⚠️ Stock reservation unavailable, placing order without hold: " + e.getMessage());
+        }
+
+        try {
+            return orderRepository.save(order);
+        } catch (RuntimeException e) {
+            releaseStock(order);
+            throw e;
+        }
+    }
+
+    private Map<String, Object> outOfStock(Order order) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", order.getProductId());
+        response.put("paymentStatus", "OUT_OF_STOCK");
+        return response;
+    }
+
+    // ✅ Async placement: persist the order, hand payment + stock to a worker, return at once
+    public Map<String, Object> placeOrderAsync(Order order) {
+        order.setOrderDate(LocalDateTime.now());
+        Order savedOrder;
+        try {
+            savedOrder = saveWithReservation(order);
+        } catch (HttpClientErrorException.Conflict e) {
+            return outOfStock(order);
+        }
+        Long orderId = savedOrder.getId();
+
+        // PROCESSING keeps the scheduled reconciler away from rows a worker still owns
+        savePaymentStatus(orderId, "PROCESSING");
+        placementTracker.register(orderId);
+
+        String status = "PROCESSING";
+        try {
+            orderPlacementExecutor.execute(() -> completePlacement(orderId));
+        } catch (TaskRejectedException e) {
+            System.out.println("⚠️ Placement queue full, deferring Order " + orderId + " to reconciler");
+            deferToReconciler(orderId);
+            placementTracker.complete(orderId, "PENDING");
+            status = "PENDING";
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", orderId);
+        response.put("paymentStatus", status);
+        response.put("statusUrl", "/orders/" + orderId + "/status");
+        return response;
+    }
+
+    private void completePlacement(Long orderId) {
+        String status = "PENDING";
+        try {
+            // processPayment saves SUCCESS and updates stock itself when payment goes through
+            PaymentResponse paymentResponse = processPayment(orderId);
+            if (paymentResponse != null
+                    && (paymentResponse.isSuccess() || isUnfulfillable(paymentResponse.getPaymentStatus()))) {
+                status = paymentResponse.getPaymentStatus();
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Async payment failed for Order " + orderId + ": " + e.getMessage());
+        }
+
+        if ("PENDING".equals(status)) {
+            deferToReconciler(orderId); // ✅ Reconciler picks it up from here
+        }
+        placementTracker.complete(orderId, status);
+    }
+
+    // ✅ Current placement state; PROCESSING while a worker still owns the order
+    public Map<String, Object> getPlacementStatus(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+
+        String status = paymentRepository.findByOrderId(orderId)
+                .map(Payment::getPaymentStatus)
+                .orElse("PENDING");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", order.getId());
+        response.put("paymentStatus", status);
+        return response;
+    }
+
+    // ✅ Completes when the async worker finishes, or null if the order is not in flight
+    public CompletableFuture<Map<String, Object>> awaitPlacement(Long orderId) {
+        CompletableFuture<String> inFlight = placementTracker.get(orderId);
+        if (inFlight == null) {
+            return null;
+        }
+        return inFlight.thenApply(status -> getPlacementStatus(orderId));
+    }
+
+    // ✅ Event-driven placement: order, local payment row and ORDER_PLACED outbox record commit together.
+    // The stock hold is taken first, like the other placement paths, so a paid order always has stock to
+    // commit; PAYMENT-SERVICE is reached only through the outbox relay.
+    public ResponseEntity<Map<String, Object>> placeOrderViaOutbox(Order order) {
+        order.setOrderDate(LocalDateTime.now());
+        try {
+            order.setReservationId(reserveHold(order));
+        } catch (HttpClientErrorException.Conflict e) {
+            System.out.println("⚠️ Insufficient stock for Product ID: " + order.getProductId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(outOfStock(order));
+        } catch (Exception e) {
+            System.out.println("⚠️ Stock reservation unavailable, settlement will reserve: " + e.getMessage());
+        }
+
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(tx -> {
+                Order saved = orderRepository.save(order);
+                savePaymentStatus(saved.getId(), "AWAITING_PAYMENT");
+
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("orderId", saved.getId());
+                payload.put("amount", saved.getTotalPrice());
+                writeOutboxEvent(EventBroker.PAYMENT_EVENTS, "ORDER_PLACED", saved.getId(), payload);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            releaseStock(order);
+            throw e;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", savedOrder.getId());
+        response.put("paymentStatus", "AWAITING_PAYMENT");
+        response.put("statusUrl", "/orders/" + savedOrder.getId() + "/status");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    private void writeOutboxEvent(String topic, String eventType, Long aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(topic);
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize outbox payload", e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    // ✅ Picks up payments made from ORDER_PLACED events and commits the order's hold; when the stock is gone
+    // the payment is refunded, so an event-driven order never stays paid without stock
+    @Scheduled(fixedDelayString = "${orders.outbox.settle-interval-ms:2000}")
+    public void settleAwaitingPayments() {
+        forEachPaymentChunk("AWAITING_PAYMENT", chunk -> {
+            List<Long> orderIds = new ArrayList<>(chunk.size());
+            chunk.forEach(payment -> orderIds.add(payment.getOrderId()));
+
+            Map<Long, PaymentResponse> remoteStatuses = getPaymentStatusesFromPaymentService(orderIds);
+            if (remoteStatuses == null) {
+                return;
+            }
+
+            LocalDateTime giveUpBefore = LocalDateTime.now().minusNanos(awaitingPaymentTimeoutMs * 1_000_000);
+            for (PaymentKeyView payment : chunk) {
+                PaymentResponse remote = remoteStatuses.get(payment.getOrderId());
+                if (remote != null && remote.isSuccess()) {
+                    try {
+                        settleFromEvent(payment.getOrderId(), remote);
+                    } catch (Exception e) {
+                        // PRODUCT-SERVICE unreachable: the row stays AWAITING_PAYMENT and is settled next tick
+                        System.out.println("⚠️ Stock commit failed for Order ID: " + payment.getOrderId() + ": " + e.getMessage());
+                    }
+                } else if (payment.getPaymentDate().isBefore(giveUpBefore)) {
+                    System.out.println("⚠️ No payment event outcome for Order " + payment.getOrderId() + ", handing to reconciler");
+                    if (paymentRepository.updateStatus(payment.getOrderId(), "AWAITING_PAYMENT", "PENDING", null,
+                            LocalDateTime.now()) == 1) {
+                        paymentDetailsCache().evict(payment.getOrderId());
+                        releaseHold(payment.getOrderId()); // The reconciler reserves again before charging
+                    }
+                }
+            }
+        });
+    }
+
+    // Stock first, as in reconcileChunk: the status only moves once the hold is committed or refunded
+    private void settleFromEvent(Long orderId, PaymentResponse remote) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (!commitStock(order)) {
+            refundPayment(orderId);
+            return;
+        }
+
+        String transactionId = remote.getTransactionId();
+        paymentRepository.updateStatus(orderId, "AWAITING_PAYMENT", "SUCCESS",
+                transactionId != null ? transactionId : "UNKNOWN", LocalDateTime.now());
+        paymentDetailsCache().evict(orderId);
+    }
+
+    // ✅ Basket placement: batched order insert, one multi-SKU hold, one payment call, one commit.
+    // Nothing is charged without the hold; any line whose stock commit is not confirmed is stored PENDING,
+    // so the reconciler commits (or re-reserves) its stock, refunding it when the stock is gone.
+    public ResponseEntity<Map<String, Object>> placeOrderBatch(OrderBatchRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return batchRejected("Batch has no items");
+        }
+        if (request.getItems().size() > maxBatchItems) {
+            return batchRejected("Batch exceeds " + maxBatchItems + " items");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = new ArrayList<>(request.getItems().size());
+        List<StockItem> stockItems = new ArrayList<>(request.getItems().size());
+        for (OrderLine line : request.getItems()) {
+            orders.add(new Order(null, request.getUserId(), line.getProductId(), line.getQuantity(), line.getTotalPrice(), now, null));
+            stockItems.add(new StockItem(line.getProductId(), line.getQuantity()));
+        }
+
+        // 🔹 One all-or-nothing hold for the whole basket before anything is charged
+        String reservationId;
+        boolean stockShort = false;
+        try {
+            reservationId = reserveHold(stockItems);
+        } catch (HttpClientErrorException.Conflict e) {
+            System.out.println("⚠️ Batch reservation rejected for " + stockItems.size() + " lines, not charging");
+            reservationId = null;
+            stockShort = true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Batch reservation unavailable, deferring lines to reconciler: " + e.getMessage());
+            reservationId = null;
+        }
+        List<Order> savedOrders;
+        try {
+            savedOrders = transactionTemplate.execute(tx -> orderRepository.saveAll(orders));
+        } catch (RuntimeException e) {
+            if (reservationId != null) {
+                releaseReservation(reservationId);
+            }
+            throw e;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", savedOrders);
+
+        Map<Long, PaymentResponse> paid = new HashMap<>();
+        if (reservationId != null) {
+            // 🔹 One call to PAYMENT-SERVICE for the whole basket
+            List<PaymentRequest> paymentRequests = new ArrayList<>(savedOrders.size());
+            for (Order order : savedOrders) {
+                paymentRequests.add(new PaymentRequest(order.getId(), order.getTotalPrice()));
+            }
+            try {
+                PaymentResponse[] results = restTemplate.postForObject("http://PAYMENT-SERVICE/payments/process-batch",
+                        paymentRequests, PaymentResponse[].class);
+                if (results != null) {
+                    for (PaymentResponse result : results) {
+                        if (result.isSuccess()) {
+                            paid.put(result.getOrderId(), result);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                System.out.println("⚠️ Batch payment failed: " + e.getMessage());
+            }
+        }
+
+        // 🔹 Commit the hold only when every line is paid; otherwise give it back and let each line re-reserve
+        String stockStatus = stockShort ? "INSUFFICIENT_STOCK" : "PENDING";
+        String heldBy = null;
+        if (reservationId != null && paid.size() == savedOrders.size()) {
+            try {
+                // A hold that expired or was released leaves heldBy null, so each line re-reserves on its own
+                if (commitHold(reservationId)) {
+                    stockStatus = "SUCCESS";
+                    heldBy = reservationId;
+                }
+            } catch (Exception e) {
+                // Outcome unknown: commit is idempotent, so the reconciler commits the same hold for each line
+                System.out.println("⚠️ Batch stock commit failed, reconciler will retry: " + e.getMessage());
+                heldBy = reservationId;
+            }
+        } else if (reservationId != null) {
+            releaseReservation(reservationId);
+        }
+
+        // ✅ Local payment mirror rows, inserted as one JDBC batch with the orders' hold reference
+        boolean committed = "SUCCESS".equals(stockStatus);
+        boolean outOfStock = stockShort;
+        String lineHold = heldBy;
+        List<Payment> payments = new ArrayList<>(savedOrders.size());
+        for (Order order : savedOrders) {
+            PaymentResponse result = paid.get(order.getId());
+            Payment payment = new Payment();
+            payment.setOrderId(order.getId());
+            payment.setAmount(order.getTotalPrice());
+            payment.setPaymentStatus(outOfStock ? "OUT_OF_STOCK" : committed ? "SUCCESS" : "PENDING");
+            payment.setTransactionId(committed && result != null ? result.getTransactionId() : null);
+            payment.setPaymentDate(now);
+            payments.add(payment);
+            order.setReservationId(lineHold);
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (lineHold != null) {
+                orderRepository.saveAll(savedOrders);
+            }
+            paymentRepository.saveAll(payments);
+        });
+
+        response.put("stockStatus", stockStatus);
+        if (outOfStock) {
+            response.put("paymentStatus", "OUT_OF_STOCK");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("paymentStatus", committed ? "SUCCESS" : "PENDING");
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> batchRejected(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.badRequest().body(error);
+    }
+
     private String fetchPaymentStatusWithRetry(Long orderId) throws InterruptedException {
         int retryCount = 0;
         String paymentStatus = "PENDING";
@@ -153,60 +641,171 @@ public class OrderService {
 
     // ✅ Call Payment Service with Circuit Breaker
     @CircuitBreaker(name = PAYMENT_SERVICE_CB, fallbackMethod = "paymentServiceFallback")
-    public Map<String, Object> processPayment(Long orderId) {
-        Map<String, Object> paymentRequest = new HashMap<>();
-        paymentRequest.put("orderId", orderId);
-
+    public PaymentResponse processPayment(Long orderId) {
         // ✅ Fetch order details
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        paymentRequest.put("amount", order.getTotalPrice());
+
+        // ✅ Never charge without a hold: deferred orders gave theirs back, so take a fresh one first
+        if (order.getReservationId() == null) {
+            try {
+                order.setReservationId(reserveHold(order));
+                orderRepository.save(order);
+            } catch (HttpClientErrorException.Conflict e) {
+                System.out.println("⚠️ Stock ran out before Order " + orderId + " was paid, not charging");
+                savePaymentStatus(orderId, "OUT_OF_STOCK");
+                return new PaymentResponse(null, orderId, order.getTotalPrice(), "OUT_OF_STOCK", null, null);
+            }
+        }
+        PaymentRequest paymentRequest = new PaymentRequest(orderId, order.getTotalPrice());
 
         String paymentServiceUrl = "http://PAYMENT-SERVICE/payments/process";
-        Map<String, Object> paymentResponse = restTemplate.postForObject(paymentServiceUrl, paymentRequest, Map.class);
+        PaymentResponse paymentResponse = restTemplate.postForObject(paymentServiceUrl, paymentRequest, PaymentResponse.class);
 
         // ✅ Prevent duplicate stock updates
-        if ("SUCCESS".equals(paymentResponse.get("paymentStatus"))) {
+        if (paymentResponse.isSuccess()) {
             Payment existingPayment = paymentRepository.findByOrderId(orderId).orElse(null);
             if (existingPayment == null || !"SUCCESS".equals(existingPayment.getPaymentStatus())) {
-                updateProductStock(order);  // ✅ Only update stock if first time
+                if (!commitStock(order)) {  // ✅ Only update stock if first time
+                    refundPayment(orderId);
+                    paymentResponse.setPaymentStatus("REFUNDED");
+                    return paymentResponse;
+                }
             }
             savePaymentRecord(orderId, paymentResponse, "SUCCESS");
         }
 
         return paymentResponse;
     }
-    
-    private void updateProductStock(Order order) {
-        Map<String, Object> stockUpdateRequest = new HashMap<>();
-        stockUpdateRequest.put("productId", order.getProductId());
-        stockUpdateRequest.put("quantity", order.getQuantity());
 
-        String productServiceUrl = "http://PRODUCT-SERVICE/products/update-stock";
-        restTemplate.postForObject(productServiceUrl, stockUpdateRequest, Void.class);
+    // ✅ Turns the order's hold into a stock decrement. A hold that expired or was released is replaced by a
+    // fresh reserve-and-commit; false means the stock is gone and the payment has to be refunded.
+    private boolean commitStock(Order order) {
+        if (order.getReservationId() != null && commitHold(order.getReservationId())) {
+            System.out.println("✅ Stock reservation committed for Order ID: " + order.getId());
+            return true;
+        }
+        try {
+            order.setReservationId(reserveHold(order));
+        } catch (HttpClientErrorException.Conflict e) {
+            System.out.println("⚠️ No stock left for paid Order ID: " + order.getId());
+            return false;
+        }
+        orderRepository.save(order);
+        return commitHold(order.getReservationId());
+    }
+
+    private String reserveHold(Order order) {
+        return reserveHold(List.of(new StockItem(order.getProductId(), order.getQuantity())));
+    }
 
-        System.out.println("✅ Stock updated for Product ID: " + order.getProductId());
+    private String reserveHold(List<StockItem> items) {
+        ReservationRequest request = new ReservationRequest(items, reservationTtlSeconds);
+        return restTemplate.postForObject("http://PRODUCT-SERVICE/products/reserve", request, ReservationResponse.class)
+                .getReservationId();
+    }
+
+    // 409/404 mean the hold is no longer active; anything else propagates so the caller retries later
+    private boolean commitHold(String reservationId) {
+        try {
+            restTemplate.postForObject("http://PRODUCT-SERVICE/products/commit-reservation",
+                    new ReservationCommand(reservationId), ReservationResponse.class);
+            return true;
+        } catch (HttpClientErrorException e) {
+            System.out.println("⚠️ Reservation " + reservationId + " no longer held (" + e.getStatusCode() + ")");
+            return false;
+        }
+    }
+
+    // ✅ True when the hold is gone (released, expired or unknown); committed or unreachable holds stay on the order
+    private boolean releaseStock(Order order) {
+        return order.getReservationId() == null || releaseReservation(order.getReservationId());
+    }
+
+    private boolean releaseReservation(String reservationId) {
+        ReservationCommand request = new ReservationCommand(reservationId);
+        try {
+            restTemplate.postForObject("http://PRODUCT-SERVICE/products/release-reservation", request,
+                    ReservationResponse.class);
+            return true;
+        } catch (HttpClientErrorException.Conflict e) {
+            return e.getResponseBodyAsString().contains("EXPIRED");
+        } catch (HttpClientErrorException.NotFound e) {
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not release reservation " + reservationId + ", it will expire");
+            return false; // Keep the id: commitStock re-reserves once the hold has expired
+        }
+    }
+
+    // ✅ Payment went through but the stock is gone: the refund commits with the local status through the outbox
+    private void refundPayment(Long orderId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            savePaymentStatus(orderId, "REFUNDED");
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("orderId", orderId);
+            writeOutboxEvent(EventBroker.PAYMENT_EVENTS, "PAYMENT_REFUND", orderId, payload);
+        });
+    }
+
+    // Orders that cannot be fulfilled; the reconciler leaves them alone
+    private static boolean isUnfulfillable(String paymentStatus) {
+        return "OUT_OF_STOCK".equals(paymentStatus) || "REFUNDED".equals(paymentStatus);
     }
 
     // ✅ Fallback Method: If Payment Service Fails
     public void paymentServiceFallback(Long orderId, Exception ex) {
         System.out.println("⚠️ Payment Service is down. Setting Payment Status to PENDING.");
-        savePendingPayment(orderId);
+        deferToReconciler(orderId);
     }
 
-    // ✅ Save "PENDING" Payment to ORDER-SERVICE DB
-    private void savePendingPayment(Long orderId) {
+    // ✅ Hands an unpaid order to the reconciler as PENDING and gives its hold back, so waiting for a retry
+    // does not block the stock; the retry reserves again before charging
+    private void deferToReconciler(Long orderId) {
+        Payment payment = paymentRepository.findByOrderId(orderId).orElse(null);
+        if (payment != null && isSettled(payment.getPaymentStatus())) {
+            return;
+        }
+        savePaymentStatus(orderId, "PENDING");
+        releaseHold(orderId);
+    }
+
+    private void releaseHold(Long orderId) {
+        orderRepository.findById(orderId)
+                .filter(order -> order.getReservationId() != null)
+                .filter(this::releaseStock)
+                .ifPresent(order -> {
+                    order.setReservationId(null);
+                    orderRepository.save(order);
+                });
+    }
+
+    private static boolean isSettled(String paymentStatus) {
+        return "SUCCESS".equals(paymentStatus) || isUnfulfillable(paymentStatus);
+    }
+
+    // ✅ Create or update the local payment row with the given status (order_id is unique)
+    private void savePaymentStatus(Long orderId, String status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        Payment pendingPayment = new Payment();
-        pendingPayment.setOrderId(order.getId());
-        pendingPayment.setAmount(order.getTotalPrice());  // ✅ Set correct amount
-        pendingPayment.setPaymentStatus("PENDING");
-        pendingPayment.setTransactionId(null);
-        pendingPayment.setPaymentDate(LocalDateTime.now());
+        Payment payment = paymentRepository.findByOrderId(orderId).orElse(null);
+        if (payment == null) {
+            payment = new Payment();
+            payment.setOrderId(order.getId());
+        } else if (isSettled(payment.getPaymentStatus())) {
+            return; // Never downgrade a settled, refunded or out-of-stock payment
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        payment.setAmount(order.getTotalPrice());  // ✅ Set correct amount
+        payment.setPaymentStatus(status);
+        payment.setTransactionId(null);
+        payment.setPaymentDate(now);
+        payment.setProcessingSince("PROCESSING".equals(status) ? now : null);
 
-        paymentRepository.save(pendingPayment);  // ✅ Fixed: Now paymentRepository is correctly initialized
+        paymentRepository.save(payment);
+        paymentDetailsCache().evict(orderId);
     }
 
     // ✅ Fetch All Orders
@@ -219,14 +818,46 @@ public class OrderService {
         return orderRepository.findByUserId(userId);
     }
 
+    // ✅ Keyset page of orders (optionally for one user) with the cursor for the next page
+    public Map<String, Object> getOrdersPage(Long userId, Long afterId, int size) {
+        Limit limit = Limit.of(Math.min(Math.max(size, 1), maxPageSize));
+        long after = afterId != null ? afterId : 0L;
+
+        List<Order> orders = userId == null
+                ? orderRepository.findByIdGreaterThanOrderByIdAsc(after, limit)
+                : orderRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", orders);
+        response.put("nextCursor", orders.size() == limit.max() ? orders.get(orders.size() - 1).getId() : null);
+        return response;
+    }
+
+    // ✅ Writes orders as NDJSON straight from a DB cursor; each row is detached once written so heap stays flat
+    @Transactional(readOnly = true)
+    public void streamOrders(Long userId, OutputStream out) throws IOException {
+        try (Stream<Order> orders = userId == null ? orderRepository.streamAll() : orderRepository.streamByUserId(userId)) {
+            Iterator<Order> it = orders.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                Order order = it.next();
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+                entityManager.detach(order);
+                if (++written % 500 == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
     // ✅ Fetch Order with Payment Details
     public Map<String, Object> getOrderWithPayment(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        // Call Payment Service to get payment details
-        String paymentServiceUrl = "http://PAYMENT-SERVICE/payments/order/" + orderId;
-        Map<String, Object> paymentDetails = restTemplate.getForObject(paymentServiceUrl, Map.class);
+        PaymentResponse paymentDetails = getPaymentDetails(orderId);
 
         // ✅ Combine Order & Payment Details
         Map<String, Object> response = new HashMap<>();
@@ -235,8 +866,34 @@ public class OrderService {
 
         return response;
     }
+
+    // ✅ Settled payments (paid, refunded, out of stock) come from the cache / local mirror; only unsettled ones
+    // go to PAYMENT-SERVICE.
+    // Both paths produce the same PaymentResponse shape, so a cache hit looks like a remote answer.
+    private PaymentResponse getPaymentDetails(Long orderId) {
+        PaymentResponse cached = paymentDetailsCache().get(orderId, PaymentResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        Payment local = paymentRepository.findByOrderId(orderId).orElse(null);
+        if (local != null && isSettled(local.getPaymentStatus())) {
+            PaymentResponse paymentDetails = new PaymentResponse(local.getId(), local.getOrderId(), local.getAmount(),
+                    local.getPaymentStatus(), local.getTransactionId(), local.getPaymentDate());
+            paymentDetailsCache().put(orderId, paymentDetails);
+            return paymentDetails;
+        }
+
+        // Call Payment Service to get payment details
+        String paymentServiceUrl = "http://PAYMENT-SERVICE/payments/order/" + orderId;
+        return restTemplate.getForObject(paymentServiceUrl, PaymentResponse.class);
+    }
+
+    private Cache paymentDetailsCache() {
+        return cacheManager.getCache(CacheConfig.PAYMENT_DETAILS);
+    }
     
-    private void savePaymentRecord(Long orderId, Map<String, Object> paymentResponse, String status) {
+    private void savePaymentRecord(Long orderId, PaymentResponse paymentResponse, String status) {
         Payment payment = paymentRepository.findByOrderId(orderId).orElse(null);
 
         if (payment == null) {
@@ -244,15 +901,17 @@ public class OrderService {
             payment.setOrderId(orderId);
         }
         
-        payment.setAmount(Double.parseDouble(paymentResponse.get("amount").toString()));
+        payment.setAmount(paymentResponse.getAmount());
         payment.setPaymentStatus(status);
         payment.setPaymentDate(LocalDateTime.now());
+        payment.setProcessingSince(null);
 
         if ("SUCCESS".equals(status)) {
-            payment.setTransactionId(paymentResponse.get("transactionId").toString()); // ✅ Update Transaction ID
+            payment.setTransactionId(paymentResponse.getTransactionId()); // ✅ Update Transaction ID
         }
 
         paymentRepository.save(payment);
+        paymentDetailsCache().evict(orderId);
         System.out.println("✅ Payment status updated: Order " + orderId + " → " + status);
     }
 
@@ -0,0 +1,24 @@
+-- Transactional outbox (ORDER_PLACED / STOCK_DECREMENT events)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    topic        VARCHAR(255) NOT NULL,
+    event_type   VARCHAR(255) NOT NULL,
+    aggregate_id BIGINT       NOT NULL,
+    payload      LONGTEXT     NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    published_at DATETIME(6),
+    attempts     INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Table-backed sequences for the pooled (allocationSize = 50) Order/Payment id generators.
+-- Seeded past the current max id so new blocks never collide with AUTO_INCREMENT rows.
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO orders_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM orders
+WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+
+CREATE TABLE IF NOT EXISTS payments_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO payments_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM payments
+WHERE NOT EXISTS (SELECT 1 FROM payments_seq);
@@ -0,0 +1,9 @@
+-- /orders/user/{userId} and its keyset pages: WHERE user_id = ? [AND id > ?] ORDER BY id
+CREATE INDEX idx_orders_user_id_id ON orders (user_id, id);
+
+-- Reconciler / outbox settlement: WHERE payment_status = ? AND id > ? ORDER BY id.
+-- order_id and payment_date are included so the keyset scan is index-only.
+CREATE INDEX idx_payments_status_id ON payments (payment_status, id, order_id, payment_date);
+
+-- Outbox relay: WHERE published_at IS NULL ORDER BY id
+CREATE INDEX idx_outbox_unpublished ON outbox_events (published_at, id);
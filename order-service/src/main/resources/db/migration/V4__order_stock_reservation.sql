@@ -0,0 +1,2 @@
+-- Stock hold taken in product-service at placement, committed when payment succeeds
+ALTER TABLE orders ADD COLUMN reservation_id VARCHAR(36) NULL;
@@ -0,0 +1,8 @@
+-- When an async placement worker took the order; stale PROCESSING rows are handed back to the reconciler
+ALTER TABLE payments ADD COLUMN processing_since DATETIME(6) NULL;
+
+-- Rows already PROCESSING before this migration count from their last status change
+UPDATE payments SET processing_since = payment_date WHERE payment_status = 'PROCESSING';
+
+-- Stale-placement sweep: WHERE payment_status = 'PROCESSING' AND processing_since < ? ORDER BY id
+CREATE INDEX idx_payments_status_processing_since ON payments (payment_status, processing_since, id);
@@ -0,0 +1,3 @@
+-- Per-event retry schedule for the outbox relay: set while a relay has the row claimed, and to the
+-- backoff deadline after a failed delivery. Rows with attempts >= orders.outbox.max-attempts are parked.
+ALTER TABLE outbox_events ADD COLUMN next_attempt_at DATETIME(6) NULL;
@@ -0,0 +1,84 @@
+package com.orderservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class DownstreamConcurrencyLimiterTest {
+
+    private static final int CALLS = 500;
+
+    @Test
+    void holdsPermitUntilResponseIsClosed() throws Exception {
+        DownstreamConcurrencyLimiter limiter = new DownstreamConcurrencyLimiter(Map.of("PAYMENT-SERVICE", 1), 10);
+
+        ClientHttpResponse first = call(limiter);
+        assertThrows(IOException.class, () -> call(limiter)); // Body not read yet, so the call is still in flight
+
+        first.close();
+        first.close(); // A second close must not hand out an extra permit
+        ClientHttpResponse second = call(limiter);
+        assertThrows(IOException.class, () -> call(limiter));
+        second.close();
+    }
+
+    @Test
+    void releasesPermitWhenCallFails() throws Exception {
+        DownstreamConcurrencyLimiter limiter = new DownstreamConcurrencyLimiter(Map.of("PAYMENT-SERVICE", 1), 10);
+
+        assertThrows(IOException.class, () -> limiter.intercept(request(), new byte[0], (req, body) -> {
+            throw new IOException("connection reset");
+        }));
+
+        call(limiter).close();
+    }
+
+    @Test
+    void limiterBoundsConcurrentCallsPerService() throws Exception {
+        DownstreamConcurrencyLimiter limiter = new DownstreamConcurrencyLimiter(Map.of("PAYMENT-SERVICE", 16), 10_000);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(CALLS);
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("limit-", CALLS);
+
+        for (int i = 0; i < CALLS; i++) {
+            executor.execute(() -> {
+                try (ClientHttpResponse response = limiter.intercept(request(), new byte[0], (req, body) -> {
+                    peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                })) {
+                    Thread.sleep(1); // Reading the body
+                    current.decrementAndGet();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        assertTrue(peak.get() <= 16, "peak concurrency was " + peak.get());
+    }
+
+    private static ClientHttpResponse call(DownstreamConcurrencyLimiter limiter) throws IOException {
+        return limiter.intercept(request(), new byte[0],
+                (req, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.POST, URI.create("http://PAYMENT-SERVICE/payments/process"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.orderservice.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Time to place a burst of {@value #PLACEMENTS} orders when every placement
+ * blocks on a {@value #DOWNSTREAM_LATENCY_MS} ms downstream call:
+ * <ul>
+ * <li>{@code platformPool} - Tomcat's default of 200 platform threads</li>
+ * <li>{@code virtualThreads} - {@link BoundedVirtualThreadExecutor}, one virtual thread per placement</li>
+ * </ul>
+ * Run with {@code mvn -P benchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int PLACEMENTS = 2000;
+    private static final long DOWNSTREAM_LATENCY_MS = 50;
+
+    private ExecutorService platform;
+    private TaskExecutor virtual;
+
+    @Setup
+    public void setUp() {
+        platform = Executors.newFixedThreadPool(200);
+        // Headroom: a thread counts down before its permit is returned, so the next burst can overlap the last
+        virtual = new BoundedVirtualThreadExecutor("bench-", 10 * PLACEMENTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        platform.shutdownNow();
+    }
+
+    @Benchmark
+    public void platformPool() throws InterruptedException {
+        placeBurst(platform::execute);
+    }
+
+    @Benchmark
+    public void virtualThreads() throws InterruptedException {
+        placeBurst(virtual);
+    }
+
+    private static void placeBurst(TaskExecutor executor) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(PLACEMENTS);
+        for (int i = 0; i < PLACEMENTS; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(DOWNSTREAM_LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
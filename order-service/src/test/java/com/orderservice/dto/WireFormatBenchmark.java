@@ -0,0 +1,72 @@
+package com.orderservice.dto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encode and decode time of a {@value #PAYMENTS}-entry status/batch payload:
+ * <ul>
+ * <li>{@code jsonEncode} / {@code jsonDecode} - the JSON converter's mapper</li>
+ * <li>{@code cborEncode} / {@code cborDecode} - the CBOR converter's mapper</li>
+ * </ul>
+ * Run with {@code mvn -P benchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    private static final int PAYMENTS = 500;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private List<PaymentResponse> batch;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        batch = WireFormatTest.paymentBatch(PAYMENTS);
+        jsonBytes = json.writeValueAsBytes(batch);
+        cborBytes = cbor.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return json.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] cborEncode() throws Exception {
+        return cbor.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public PaymentResponse[] jsonDecode() throws Exception {
+        return json.readValue(jsonBytes, PaymentResponse[].class);
+    }
+
+    @Benchmark
+    public PaymentResponse[] cborDecode() throws Exception {
+        return cbor.readValue(cborBytes, PaymentResponse[].class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.orderservice.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that a status/batch payload is smaller as CBOR than as JSON and
+ * round-trips through both, using the same mapper setup the RestTemplate
+ * converters get. Encode time is measured by {@link WireFormatBenchmark}.
+ */
+class WireFormatTest {
+
+    private static final int PAYMENTS = 500;
+
+    @Test
+    void cborIsSmallerAndRoundTripsPaymentBatch() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        List<PaymentResponse> batch = paymentBatch(PAYMENTS);
+
+        byte[] jsonBytes = json.writeValueAsBytes(batch);
+        byte[] cborBytes = cbor.writeValueAsBytes(batch);
+
+        assertTrue(cborBytes.length < jsonBytes.length, "CBOR payload should be smaller than JSON");
+        assertEquals(batch, List.of(cbor.readValue(cborBytes, PaymentResponse[].class)));
+        assertEquals(batch, List.of(json.readValue(jsonBytes, PaymentResponse[].class)));
+    }
+
+    static List<PaymentResponse> paymentBatch(int size) {
+        List<PaymentResponse> batch = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= size; i++) {
+            batch.add(new PaymentResponse(i, 10_000 + i, 19.99 * i, i % 7 == 0 ? "FAILED" : "SUCCESS",
+                    UUID.randomUUID().toString(), now.plusSeconds(i)));
+        }
+        return batch;
+    }
+}
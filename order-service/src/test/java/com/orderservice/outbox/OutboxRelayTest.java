@@ -0,0 +1,167 @@
+package com.orderservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.model.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+
+class OutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final List<OutboxEvent> table = new ArrayList<>();
+    private final List<OutboxMessage> delivered = new ArrayList<>();
+    private InMemoryEventBroker broker;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        // Stands in for the FOR UPDATE SKIP LOCKED query: unpublished, not parked, not claimed or backing off
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findDue(anyInt(), any(LocalDateTime.class), any(Pageable.class))).thenAnswer(inv -> {
+            int maxAttempts = inv.getArgument(0);
+            LocalDateTime now = inv.getArgument(1);
+            return table.stream()
+                    .filter(e -> e.getPublishedAt() == null && e.getAttempts() < maxAttempts)
+                    .filter(e -> e.getNextAttemptAt() == null || !e.getNextAttemptAt().isAfter(now))
+                    .toList();
+        });
+        when(repository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        broker = new InMemoryEventBroker();
+        relay = new OutboxRelay();
+        ReflectionTestUtils.setField(relay, "outboxEventRepository", repository);
+        ReflectionTestUtils.setField(relay, "eventBroker", broker);
+        ReflectionTestUtils.setField(relay, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(relay, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "claimTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", 1_000L);
+        ReflectionTestUtils.setField(relay, "maxBackoffMs", 300_000L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", MAX_ATTEMPTS);
+    }
+
+    @Test
+    void publishesEachTopicAndMarksEventsPublished() {
+        OutboxEvent placed = event(1L, "orders", "{\"orderId\":7}");
+        OutboxEvent stock = event(2L, "stock", "{\"productId\":3}");
+        broker.subscribe("orders", delivered::addAll);
+        broker.subscribe("stock", delivered::addAll);
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L), delivered.stream().map(OutboxMessage::getEventId).toList());
+        assertEquals(7, delivered.get(0).getPayload().get("orderId"));
+        assertNotNull(placed.getPublishedAt());
+        assertNotNull(stock.getPublishedAt());
+        assertNull(placed.getNextAttemptAt());
+    }
+
+    @Test
+    void failedDeliveryBacksOffAndIsRetriedLater() {
+        OutboxEvent event = event(1L, "orders", "{}");
+        boolean[] consumerDown = {true};
+        broker.subscribe("orders", batch -> {
+            if (consumerDown[0]) {
+                throw new ResourceAccessException("connection refused");
+            }
+            delivered.addAll(batch);
+        });
+
+        relay.relay();
+        assertNull(event.getPublishedAt());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        relay.relay(); // Still backing off: not polled
+        assertEquals(1, event.getAttempts());
+
+        consumerDown[0] = false;
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        relay.relay();
+        assertNotNull(event.getPublishedAt());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void poisonEventIsIsolatedAndParkedWithoutBlockingItsTopic() {
+        OutboxEvent first = event(1L, "orders", "{}");
+        OutboxEvent poison = event(2L, "orders", "{}");
+        OutboxEvent third = event(3L, "orders", "{}");
+        broker.subscribe("orders", batch -> {
+            if (batch.stream().anyMatch(m -> m.getEventId() == 2L)) {
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }
+            delivered.addAll(batch);
+        });
+
+        relay.relay();
+        assertNotNull(first.getPublishedAt());
+        assertNotNull(third.getPublishedAt());
+        assertNull(poison.getPublishedAt());
+        assertEquals(1, poison.getAttempts());
+
+        for (int i = 1; i < MAX_ATTEMPTS; i++) {
+            poison.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            relay.relay();
+        }
+        assertEquals(MAX_ATTEMPTS, poison.getAttempts());
+        assertNull(poison.getNextAttemptAt());
+
+        OutboxEvent next = event(4L, "orders", "{}");
+        relay.relay(); // The parked event is no longer polled, later events flow
+        assertEquals(MAX_ATTEMPTS, poison.getAttempts());
+        assertNotNull(next.getPublishedAt());
+        assertEquals(List.of(1L, 3L, 4L), delivered.stream().map(OutboxMessage::getEventId).toList());
+    }
+
+    @Test
+    void consumerOutageStopsTheBatchWithoutChargingAttemptsToLaterEvents() {
+        OutboxEvent first = event(1L, "orders", "{}");
+        OutboxEvent second = event(2L, "orders", "{}");
+        broker.subscribe("orders", batch -> {
+            throw new ResourceAccessException("connection refused");
+        });
+
+        relay.relay();
+
+        assertEquals(1, first.getAttempts());
+        assertEquals(0, second.getAttempts());
+        assertNull(second.getNextAttemptAt()); // Released, due again on the next poll
+        assertNull(second.getPublishedAt());
+    }
+
+    private OutboxEvent event(Long id, String topic, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTopic(topic);
+        event.setEventType("TEST");
+        event.setAggregateId(id);
+        event.setPayload(payload);
+        event.setCreatedAt(LocalDateTime.now());
+        table.add(event);
+        return event;
+    }
+}
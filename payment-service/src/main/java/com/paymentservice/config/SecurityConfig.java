@@ -1,8 +1,13 @@
 package com.paymentservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -12,8 +17,24 @@ public class SecurityConfig {
     	 http
          .csrf().disable()
          .authorizeHttpRequests()
-         .anyRequest().permitAll();  // 🔹 Allow all requests
+         // ✅ Service-to-service endpoints: refunds, basket charges and bulk status reads need the service account
+         .requestMatchers(HttpMethod.POST, "/payments/events", "/payments/process-batch", "/payments/status/batch")
+         .hasRole("SERVICE")
+         .anyRequest().permitAll()  // 🔹 Allow all other requests
+         .and()
+         .httpBasic();
 
      return http.build();
     }
+
+    // ✅ Service account order-service uses for the endpoints above; no default password, so a missing secret fails startup
+    @Bean
+    public UserDetailsService userDetailsService(
+            @Value("${payments.security.service-user:order-service}") String username,
+            @Value("${payments.security.service-password}") String password) {
+        return new InMemoryUserDetailsManager(User.withUsername(username)
+                .password("{noop}" + password)
+                .roles("SERVICE")
+                .build());
+    }
 }
@@ -1,11 +1,13 @@
 package com.paymentservice.controller;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.hc.core5.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,27 +16,46 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.paymentservice.dto.PaymentRequest;
+import com.paymentservice.dto.PaymentResponse;
 import com.paymentservice.model.Payment;
+import com.paymentservice.model.PaymentEvent;
+import com.paymentservice.service.PaymentEventConsumer;
 import com.paymentservice.service.PaymentService;
 
 @RestController
 @RequestMapping("/payments")
 public class PaymentController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private PaymentEventConsumer paymentEventConsumer;
+
+    // ✅ JSON or CBOR, negotiated from Content-Type / Accept
     @PostMapping("/process")
-    public ResponseEntity<Map<String, Object>> processPayment(@RequestBody Payment payment) {
-        Payment savedPayment = paymentService.processPayment(payment);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", savedPayment.getId());
-        response.put("orderId", savedPayment.getOrderId());
-        response.put("paymentStatus", savedPayment.getPaymentStatus());
-        response.put("transactionId", savedPayment.getTransactionId());
-        response.put("paymentDate", savedPayment.getPaymentDate());
-        response.put("amount",savedPayment.getAmount());
+    public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest request) {
+        Payment savedPayment = paymentService.processPayment(request.toPayment());
+        return ResponseEntity.ok(PaymentResponse.from(savedPayment));
+    }
 
+    // ✅ Batch payment for a basket: one request, one batched insert
+    @PostMapping("/process-batch")
+    public ResponseEntity<List<PaymentResponse>> processPayments(@RequestBody List<PaymentRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Payment> payments = new ArrayList<>(requests.size());
+        for (PaymentRequest request : requests) {
+            payments.add(request.toPayment());
+        }
+        List<PaymentResponse> response = new ArrayList<>();
+        for (Payment savedPayment : paymentService.processPayments(payments)) {
+            response.add(PaymentResponse.from(savedPayment));
+        }
         return ResponseEntity.ok(response);
     }
 
@@ -71,5 +92,31 @@ public class PaymentController {
         return ResponseEntity.ok(Map.of("paymentStatus", payment.getPaymentStatus()));
     }
 
-}
+    // ✅ Bulk status lookup: status + transactionId for many orders in one call
+    // Orders without a payment are simply absent from the result
+    @PostMapping("/status/batch")
+    public ResponseEntity<List<PaymentResponse>> getPaymentStatuses(@RequestBody List<Long> orderIds) {
+        if (orderIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<PaymentResponse> statuses = new ArrayList<>();
+        for (Payment payment : paymentService.getPaymentsByOrderIds(orderIds)) {
+            statuses.add(PaymentResponse.status(payment));
+        }
+        return ResponseEntity.ok(statuses);
+    }
 
+    // ✅ Outbox relay delivery: 200 only after the batch is committed, so the relay never marks lost events published
+    @PostMapping("/events")
+    public ResponseEntity<Void> consumeEvents(@RequestBody List<PaymentEvent> events) {
+        try {
+            paymentEventConsumer.accept(events);
+        } catch (DataAccessException e) {
+            System.out.println("⚠️ Payment events not applied, relay will retry: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.SC_SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.paymentservice.dto;
+
+import com.paymentservice.model.Payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Body of /payments/process and /payments/process-batch (JSON or CBOR)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRequest {
+    private Long orderId;
+    private double amount;
+
+    public Payment toPayment() {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(amount);
+        return payment;
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymentservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.paymentservice.model.Payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Payment outcome returned to ORDER-SERVICE; same field names as the former map responses
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentResponse {
+    private Long id;
+    private Long orderId;
+    private Double amount;
+    private String paymentStatus;
+    private String transactionId;
+    private LocalDateTime paymentDate;
+
+    public static PaymentResponse from(Payment payment) {
+        return new PaymentResponse(payment.getId(), payment.getOrderId(), payment.getAmount(),
+                payment.getPaymentStatus(), payment.getTransactionId(), payment.getPaymentDate());
+    }
+
+    // Status lookups only carry what reconciliation needs
+    public static PaymentResponse status(Payment payment) {
+        return new PaymentResponse(null, payment.getOrderId(), null, payment.getPaymentStatus(),
+                payment.getTransactionId(), null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.paymentservice.model;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Event delivered by the order-service outbox relay
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentEvent {
+    private Long eventId;
+    private String eventType;
+    private Long aggregateId;
+    private Map<String, Object> payload;
+}
@@ -1,5 +1,8 @@
 package com.paymentservice.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,4 +11,6 @@ import com.paymentservice.model.Payment;
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 	Payment findByOrderId(Long orderId);
 
+	List<Payment> findByOrderIdIn(Collection<Long> orderIds);
+
 }
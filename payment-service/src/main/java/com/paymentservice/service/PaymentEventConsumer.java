@@ -0,0 +1,45 @@
+package com.paymentservice.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.paymentservice.model.PaymentEvent;
+
+// ✅ Applies ORDER_PLACED and PAYMENT_REFUND events before acknowledging; payments are idempotent per order, so redelivery is safe
+@Service
+public class PaymentEventConsumer {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    // Returns once every event is durably applied; a DataAccessException means the relay must retry the batch
+    public void accept(List<PaymentEvent> events) {
+        for (PaymentEvent event : events) {
+            handle(event);
+        }
+    }
+
+    private void handle(PaymentEvent event) {
+        try {
+            Long orderId = Long.valueOf(event.getPayload().get("orderId").toString());
+            if ("ORDER_PLACED".equals(event.getEventType())) {
+                double amount = Double.parseDouble(event.getPayload().get("amount").toString());
+                paymentService.processPaymentOnce(orderId, amount);
+            } else if ("PAYMENT_REFUND".equals(event.getEventType())) {
+                paymentService.refundPayment(orderId);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent delivery inserted the payment first (order_id is unique)
+            System.out.println("ℹ️ Payment event " + event.getEventId() + " already applied");
+        } catch (DataAccessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Malformed or invalid event: retrying would fail the same way, so skip it
+            System.out.println("⚠️ Payment event " + event.getEventId() + " rejected: " + e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.paymentservice.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +34,69 @@ public class PaymentService {
         return paymentRepository.save(payment);
     }
 
+    // ✅ Safe to call again for the same order: an existing SUCCESS (or REFUNDED) is returned as-is
+    @Transactional
+    public Payment processPaymentOnce(Long orderId, double amount) {
+        Payment payment = paymentRepository.findByOrderId(orderId);
+        if (payment != null && isSettled(payment)) {
+            return payment;
+        }
+        if (payment == null) {
+            payment = new Payment();
+            payment.setOrderId(orderId);
+        }
+        payment.setAmount(amount);
+        return processPayment(payment);
+    }
+
+    // ✅ Batch payment: one lookup + one batched insert for the whole basket
+    @Transactional
+    public List<Payment> processPayments(List<Payment> payments) {
+        Map<Long, Payment> existing = new HashMap<>();
+        for (Payment payment : paymentRepository.findByOrderIdIn(payments.stream().map(Payment::getOrderId).toList())) {
+            existing.put(payment.getOrderId(), payment);
+        }
+
+        List<Payment> toSave = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            if (payment.getAmount() == 0) {
+                throw new RuntimeException("Amount is missing for Order ID: " + payment.getOrderId());
+            }
+            Payment current = existing.get(payment.getOrderId());
+            if (current != null && isSettled(current)) {
+                toSave.add(current);
+                continue;
+            }
+            if (current == null) {
+                current = new Payment();
+                current.setOrderId(payment.getOrderId());
+            }
+            current.setAmount(payment.getAmount());
+            current.setPaymentStatus("SUCCESS");
+            current.setTransactionId(UUID.randomUUID().toString());
+            current.setPaymentDate(LocalDateTime.now());
+            toSave.add(current);
+        }
+        return paymentRepository.saveAll(toSave);
+    }
+
+    // ✅ Compensation from order-service (stock ran out after payment); idempotent, only SUCCESS moves to REFUNDED
+    @Transactional
+    public Payment refundPayment(Long orderId) {
+        Payment payment = paymentRepository.findByOrderId(orderId);
+        if (payment == null || !"SUCCESS".equals(payment.getPaymentStatus())) {
+            return payment;
+        }
+        payment.setPaymentStatus("REFUNDED");
+        payment.setPaymentDate(LocalDateTime.now());
+        return paymentRepository.save(payment);
+    }
+
+    // A refunded order must never be charged again by a late retry
+    private static boolean isSettled(Payment payment) {
+        return "SUCCESS".equals(payment.getPaymentStatus()) || "REFUNDED".equals(payment.getPaymentStatus());
+    }
+
     public Payment createPendingPayment(Payment payment) {
         Payment existingPayment = paymentRepository.findByOrderId(payment.getOrderId());
 
@@ -47,6 +115,11 @@ public class PaymentService {
     public Payment getPaymentByOrderId(Long orderId) {
         return paymentRepository.findByOrderId(orderId);
     }
+
+    // ✅ One IN query for a whole reconciliation chunk
+    public List<Payment> getPaymentsByOrderIds(Collection<Long> orderIds) {
+        return paymentRepository.findByOrderIdIn(orderIds);
+    }
 }
 
 
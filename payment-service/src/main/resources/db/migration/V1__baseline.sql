@@ -0,0 +1,13 @@
+-- Schema as previously generated by Hibernate auto-DDL.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS payments (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    order_id       BIGINT       NOT NULL,
+    amount         DOUBLE       NOT NULL,
+    payment_status VARCHAR(255) NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_date   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payments_order_id UNIQUE (order_id)
+) ENGINE = InnoDB;
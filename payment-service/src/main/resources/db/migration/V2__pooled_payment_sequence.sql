@@ -0,0 +1,6 @@
+-- Table-backed sequence for the pooled (allocationSize = 50) Payment id generator.
+-- Seeded past the current max id so new blocks never collide with AUTO_INCREMENT rows.
+CREATE TABLE IF NOT EXISTS payments_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO payments_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM payments
+WHERE NOT EXISTS (SELECT 1 FROM payments_seq);
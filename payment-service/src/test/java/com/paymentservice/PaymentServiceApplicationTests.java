@@ -3,7 +3,7 @@ package com.paymentservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "payments.security.service-password=test-secret")
 class PaymentServiceApplicationTests {
 
 	@Test
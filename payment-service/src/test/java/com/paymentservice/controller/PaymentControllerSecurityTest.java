@@ -0,0 +1,55 @@
+package com.paymentservice.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.paymentservice.config.SecurityConfig;
+import com.paymentservice.service.PaymentEventConsumer;
+import com.paymentservice.service.PaymentService;
+
+@WebMvcTest(controllers = PaymentController.class, properties = {
+        "spring.cloud.config.enabled=false",
+        "payments.security.service-password=test-secret" })
+@Import(SecurityConfig.class)
+class PaymentControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PaymentService paymentService;
+
+    @MockitoBean
+    private PaymentEventConsumer paymentEventConsumer;
+
+    @Test
+    void serviceEndpointsNeedCredentials() throws Exception {
+        for (String path : List.of("/payments/events", "/payments/process-batch", "/payments/status/batch")) {
+            mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(post(path).with(httpBasic("order-service", "wrong"))
+                            .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    void serviceAccountCanDeliverEvents() throws Exception {
+        mockMvc.perform(post("/payments/events")
+                        .with(httpBasic("order-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"eventId\":1,\"eventType\":\"PAYMENT_REFUND\",\"aggregateId\":7,\"payload\":{\"orderId\":7}}]"))
+                .andExpect(status().isOk());
+    }
+}
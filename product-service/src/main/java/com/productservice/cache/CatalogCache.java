@@ -0,0 +1,105 @@
+package com.productservice.cache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productservice.config.CacheConfig;
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.event.ProductChangedEvent;
+import com.productservice.model.Product;
+
+/**
+ * Read-through cache for the full catalog and per-category listings.
+ * Entries are evicted on product changes; a load that raced with a change is
+ * returned to its caller but not cached, so a stale list never outlives an eviction.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL = "all";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCategoryLookup categoryLookup;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogSnapshot all(Supplier<List<Product>> loader) {
+        return get(cache(CacheConfig.CATALOG), ALL, loader);
+    }
+
+    public CatalogSnapshot category(String category, Supplier<List<Product>> loader) {
+        return get(cache(CacheConfig.CATALOG_BY_CATEGORY), category, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        cache(CacheConfig.CATALOG).evict(ALL);
+
+        String category = event.getProduct() != null
+                ? event.getProduct().getCategory()
+                : categoryLookup.cached(event.getProductId()); // No DB read on the commit path
+        if (category != null) {
+            cache(CacheConfig.CATALOG_BY_CATEGORY).evict(category);
+        } else {
+            cache(CacheConfig.CATALOG_BY_CATEGORY).clear();
+        }
+    }
+
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        clear();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        cache(CacheConfig.CATALOG).clear();
+        cache(CacheConfig.CATALOG_BY_CATEGORY).clear();
+    }
+
+    private CatalogSnapshot get(Cache cache, String key, Supplier<List<Product>> loader) {
+        CatalogSnapshot snapshot = cache.get(key, CatalogSnapshot.class);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long loadGeneration = generation.get();
+        List<Product> products = loader.get();
+        snapshot = new CatalogSnapshot(products, etag(products));
+        products.forEach(categoryLookup::remember);
+
+        if (generation.get() == loadGeneration) {
+            cache.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private String etag(List<Product> products) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(products)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not compute catalog ETag", e);
+        }
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
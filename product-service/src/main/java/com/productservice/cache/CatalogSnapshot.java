@@ -0,0 +1,16 @@
+package com.productservice.cache;
+
+import java.util.List;
+
+import com.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Cached catalog listing plus its ETag, computed once when the entry is loaded
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshot {
+    private final List<Product> products;
+    private final String etag;
+}
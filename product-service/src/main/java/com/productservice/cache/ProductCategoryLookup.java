@@ -0,0 +1,59 @@
+package com.productservice.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.productservice.config.CacheConfig;
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+
+/**
+ * Product ID to category, for stock-change events that only carry the ID.
+ * Backed by a size-bounded cache shared by {@link CatalogCache} and the change
+ * feed, so memory does not grow with the number of SKUs ever seen.
+ */
+@Component
+public class ProductCategoryLookup {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    public void remember(Product product) {
+        if (product.getId() != null && product.getCategory() != null) {
+            cache().put(product.getId(), product.getCategory());
+        }
+    }
+
+    // Cached category only; null when the product has not been seen recently
+    public String cached(Long productId) {
+        return productId != null ? cache().get(productId, String.class) : null;
+    }
+
+    // ✅ Falls back to one primary-key read on a miss; null for unknown products
+    public String resolve(Long productId) {
+        String category = cached(productId);
+        if (category == null && productId != null) {
+            category = productRepository.findById(productId).map(Product::getCategory).orElse(null);
+            if (category != null) {
+                cache().put(productId, category);
+            }
+        }
+        return category;
+    }
+
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        cache().clear();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.PRODUCT_CATEGORY);
+    }
+}
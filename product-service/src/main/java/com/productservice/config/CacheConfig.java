@@ -0,0 +1,52 @@
+package com.productservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CATALOG = "catalog";
+    public static final String CATALOG_BY_CATEGORY = "catalogByCategory";
+    public static final String PRODUCT_CATEGORY = "productCategory";
+
+    @Value("${products.cache.catalog.max-categories:1000}")
+    private long maxCategories;
+
+    @Value("${products.cache.catalog.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${products.cache.product-category.max-size:100000}")
+    private long maxProductCategories;
+
+    // ✅ Bounded + TTL as a backstop to event eviction; stats feed cache.gets{result=hit|miss} on /actuator/metrics
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CATALOG, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CATALOG_BY_CATEGORY, Caffeine.newBuilder()
+                .maximumSize(maxCategories)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+        // Product ID -> category for events that carry only the ID; categories rarely change, so no TTL
+        cacheManager.registerCustomCache(PRODUCT_CATEGORY, Caffeine.newBuilder()
+                .maximumSize(maxProductCategories)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,129 @@
+package com.productservice.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round robin)
+ * and everything else to the primary.
+ * <p>
+ * A replica is healthy when it answers the lag query within the allowed lag; the query
+ * must return replication delay in seconds (with no lag query only reachability is
+ * checked). With no healthy replica, or if a replica refuses a connection, reads fall
+ * back to the primary. Wrap in a LazyConnectionDataSourceProxy so the route is picked
+ * after the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+            long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                throw e;
+            }
+            System.out.println("⚠️ Replica connection failed, reading from primary: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    // ✅ Lag-aware health check; only replicas within max-lag-seconds take reads
+    @Scheduled(fixedDelayString = "${products.datasource.check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            Long lag = lagSeconds(replica.getValue());
+            if (lag != null && lag <= maxLagSeconds) {
+                healthy.add(replica.getKey());
+            } else if (healthyReplicas.contains(replica.getKey())) {
+                System.out.println("⚠️ Replica " + replica.getKey() + " taken out of rotation (lag: "
+                        + (lag != null ? lag + "s" : "unreachable") + ")");
+            }
+        }
+        for (String key : healthy) {
+            if (!healthyReplicas.contains(key)) {
+                System.out.println("✅ Replica " + key + " in rotation");
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    // Null when the replica is unreachable or the lag is unknown (e.g. replication stopped)
+    private Long lagSeconds(DataSource replica) {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(2) ? 0L : null;
+            }
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long lag = rs.getLong(1);
+                return rs.wasNull() ? null : lag;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.productservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -12,11 +17,26 @@ public class SecurityConfig {
         http
             .csrf().disable()
             .authorizeHttpRequests()
-            .requestMatchers("/products/all", "/products/{category}").permitAll()  // Public access
-            .requestMatchers("/products/add").authenticated() // Only authenticated users can add
+            // Public catalog reads; /categories/stats has two segments, so {category} would never match it
+            .requestMatchers(HttpMethod.GET, "/products/categories/stats", "/products/page", "/products/search",
+                    "/products/stream").permitAll()
+            .requestMatchers(HttpMethod.GET, "/products/all", "/products/{category}").permitAll()  // Public access
+            // ✅ Everything else (add, import, stock updates, reservations, outbox events) needs credentials
+            .anyRequest().authenticated()
             .and()
             .httpBasic(); // Enables basic authentication
 
         return http.build();
     }
+
+    // ✅ Service account order-service uses for writes; no default password, so a missing secret fails startup
+    @Bean
+    public UserDetailsService userDetailsService(
+            @Value("${products.security.service-user:order-service}") String username,
+            @Value("${products.security.service-password}") String password) {
+        return new InMemoryUserDetailsManager(User.withUsername(username)
+                .password("{noop}" + password)
+                .roles("SERVICE")
+                .build());
+    }
 }
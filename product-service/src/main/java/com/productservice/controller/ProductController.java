@@ -1,47 +1,282 @@
 package com.productservice.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productservice.cache.CatalogSnapshot;
+import com.productservice.dto.ReservationCommand;
+import com.productservice.dto.ReservationRequest;
+import com.productservice.dto.ReservationResponse;
+import com.productservice.dto.StockItem;
+import com.productservice.dto.StockUpdateResponse;
 import com.productservice.model.Product;
+import com.productservice.model.StockEvent;
+import com.productservice.reservation.LedgerNotOwnedException;
+import com.productservice.reservation.ReservationResult;
+import com.productservice.reservation.StockReservationLedger;
+import com.productservice.reservation.StockReservationLedger.HoldStatus;
+import com.productservice.search.ProductSearchService;
+import com.productservice.search.SearchResult;
+import com.productservice.service.ProductImportService;
 import com.productservice.service.ProductService;
+import com.productservice.service.StockEventConsumer;
+import com.productservice.service.StockWriteCoalescer;
+import com.productservice.stats.CategoryStats;
+import com.productservice.stats.CategoryStatsService;
+import com.productservice.stream.ProductChangeFeed;
+
 @RestController
 @RequestMapping("/products")
 public class ProductController {
 	@Autowired
     private ProductService productService;
 
+	@Autowired
+    private StockEventConsumer stockEventConsumer;
+
+	@Autowired
+    private ProductSearchService productSearchService;
+
+	@Autowired
+    private ProductImportService productImportService;
+
+	@Autowired
+    private ObjectMapper objectMapper;
+
+	@Autowired
+    private StockReservationLedger reservationLedger;
+
+	@Autowired
+    private StockWriteCoalescer stockWriteCoalescer;
+
+	@Autowired
+    private ProductChangeFeed productChangeFeed;
+
+	@Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Value("${products.stock.coalescing.enabled:false}")
+    private boolean coalesceStockWrites;
+
     @PostMapping("/add")
     public Product addProduct(@RequestBody Product product) {
         return productService.addProduct(product);
     }
 
+    // ✅ Bulk upsert by SKU from a streamed text/csv or application/x-ndjson body.
+    // Responds with NDJSON progress lines while importing, then one summary line with the rejects.
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String format = MediaType.parseMediaType(request.getContentType()).getSubtype().contains("csv")
+                ? ProductImportService.CSV
+                : ProductImportService.NDJSON;
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+        response.setContentType("application/x-ndjson");
+        OutputStream out = response.getOutputStream();
+        Map<String, Object> summary;
+        try {
+            summary = productImportService.importProducts(body, format, progress -> writeLine(out, progress));
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "FAILED");
+            error.put("error", e.getMessage());
+            summary = error;
+        }
+        writeLine(out, summary);
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write import progress", e);
+        }
+    }
+
     @GetMapping("/all")
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<Product>> getAllProducts(WebRequest request) {
+        return withEtag(productService.getCatalog(), request);
+    }
+
+    // ✅ Live change feed instead of polling /all; reconnects resume from Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String category,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return productChangeFeed.subscribe(category, lastEventId);
+    }
+
+    // ✅ Keyset page with sparse fields, e.g. /products/page?sort=price&fields=id,name,price; pass nextCursor back as "after"
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getProductPage(@RequestParam(required = false) String fields,
+                                                              @RequestParam(required = false) String category,
+                                                              @RequestParam(defaultValue = "id") String sort,
+                                                              @RequestParam(defaultValue = "asc") String direction,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(productService.getProductPage(fields, category, sort, direction, after, size));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // ✅ Served from the in-memory index: prefix on the last word, one-typo tolerance, category/price facets
+    @GetMapping("/search")
+    public SearchResult search(@RequestParam(required = false) String q,
+                               @RequestParam(required = false) String category,
+                               @RequestParam(required = false) Double minPrice,
+                               @RequestParam(required = false) Double maxPrice,
+                               @RequestParam(defaultValue = "false") boolean inStock,
+                               @RequestParam(defaultValue = "20") int limit) {
+        return productSearchService.search(q, category, minPrice, maxPrice, inStock, limit);
+    }
+
+    // ✅ Count, total stock and min/max price per category from incrementally maintained aggregates
+    @GetMapping("/categories/stats")
+    public List<CategoryStats> getCategoryStats() {
+        return categoryStatsService.getStats();
     }
 
     @GetMapping("/{category}")
-    public List<Product> getProductsByCategory(@PathVariable String category) {
-        return productService.getProductsByCategory(category);
+    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category, WebRequest request) {
+        return withEtag(productService.getCategoryCatalog(category), request);
+    }
+
+    // ✅ 304 when If-None-Match matches the cached listing's ETag
+    private ResponseEntity<List<Product>> withEtag(CatalogSnapshot snapshot, WebRequest request) {
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(snapshot.getProducts());
     }
     
+    // ✅ With products.stock.coalescing.enabled, concurrent calls for one product share a single DB write
     @PostMapping("/update-stock")
-    public ResponseEntity<String> updateStock(@RequestBody Map<String, Object> request) {
-        Long productId = Long.valueOf(request.get("productId").toString());
-        int quantity = Integer.parseInt(request.get("quantity").toString());
+    public CompletableFuture<ResponseEntity<String>> updateStock(@RequestBody StockItem request) {
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+
+        CompletableFuture<Boolean> applied = coalesceStockWrites
+                ? stockWriteCoalescer.decrement(productId, quantity)
+                : CompletableFuture.completedFuture(reservationLedger.decrement(productId, quantity));
+        return applied.thenApply(ok -> ok
+                ? ResponseEntity.ok("Stock updated successfully")
+                : ResponseEntity.status(HttpStatus.CONFLICT).body("Insufficient unreserved stock or unknown product"));
+    }
+
+    // ✅ Multi-SKU stock update: [{"productId":1,"quantity":2}, ...] applied atomically in one round trip
+    @PostMapping("/update-stock-batch")
+    public ResponseEntity<StockUpdateResponse> updateStockBatch(@RequestBody List<StockItem> request) {
+        List<Long> failed = reservationLedger.decrementAll(quantities(request));
+
+        if (!failed.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new StockUpdateResponse("INSUFFICIENT_STOCK", failed));
+        }
+        return ResponseEntity.ok(new StockUpdateResponse("SUCCESS", null));
+    }
+
+    // ✅ Hold stock for an order: {"items":[{"productId":1,"quantity":2}], "ttlSeconds":600}
+    @PostMapping("/reserve")
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request) {
+        ReservationResult result;
+        try {
+            result = reservationLedger.reserve(quantities(request.getItems()), request.getTtlSeconds());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ReservationResponse("INVALID", null, null, null, e.getMessage()));
+        }
+        if (!result.isReserved()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new ReservationResponse("INSUFFICIENT_STOCK", null, null, result.getFailedProductIds(), null));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ReservationResponse("RESERVED",
+                result.getReservationId(), result.getExpiresAt().toString(), null, null));
+    }
+
+    // ✅ Payment went through: the hold becomes a stock decrement (written behind)
+    @PostMapping("/commit-reservation")
+    public ResponseEntity<ReservationResponse> commitReservation(@RequestBody ReservationCommand request) {
+        return reservationResponse(reservationLedger.commit(request.getReservationId()), HoldStatus.COMMITTED);
+    }
+
+    @PostMapping("/release-reservation")
+    public ResponseEntity<ReservationResponse> releaseReservation(@RequestBody ReservationCommand request) {
+        return reservationResponse(reservationLedger.release(request.getReservationId()), HoldStatus.RELEASED);
+    }
+
+    private ResponseEntity<ReservationResponse> reservationResponse(HoldStatus status, HoldStatus expected) {
+        ReservationResponse response = ReservationResponse.status(status.name());
+        if (status == expected) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.status(status == HoldStatus.NOT_FOUND ? HttpStatus.NOT_FOUND : HttpStatus.CONFLICT)
+                .body(response);
+    }
+
+    private static Map<Long, Integer> quantities(List<StockItem> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("items are required");
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (StockItem item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    // ✅ Outbox relay delivery: 200 only after the batch is committed, so the relay never marks lost events published
+    @PostMapping("/events")
+    public ResponseEntity<Void> consumeEvents(@RequestBody List<StockEvent> events) {
+        try {
+            stockEventConsumer.accept(events);
+        } catch (DataAccessException e) {
+            System.out.println("⚠️ Stock events not applied, relay will retry: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().build();
+    }
 
-        productService.updateStock(productId, quantity);
-        return ResponseEntity.ok("Stock updated successfully");
+    // ✅ Another instance owns the stock ledger: callers (and the outbox relay) retry rather than fail the order
+    @ExceptionHandler(LedgerNotOwnedException.class)
+    public ResponseEntity<String> ledgerNotOwned(LedgerNotOwnedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
     }
 
 }
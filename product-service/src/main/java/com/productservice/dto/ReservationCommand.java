@@ -0,0 +1,13 @@
+package com.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Body of /commit-reservation and /release-reservation
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCommand {
+    private String reservationId;
+}
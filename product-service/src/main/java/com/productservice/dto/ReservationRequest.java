@@ -0,0 +1,15 @@
+package com.productservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    private List<StockItem> items;
+    private Long ttlSeconds; // Optional, server default when null
+}
@@ -0,0 +1,25 @@
+package com.productservice.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationResponse {
+    private String status;
+    private String reservationId;
+    private String expiresAt;
+    private List<Long> failedProductIds;
+    private String error;
+
+    public static ReservationResponse status(String status) {
+        return new ReservationResponse(status, null, null, null, null);
+    }
+}
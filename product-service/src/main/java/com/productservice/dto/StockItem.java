@@ -0,0 +1,14 @@
+package com.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ One SKU line in stock updates and reservations (JSON or CBOR)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItem {
+    private Long productId;
+    private int quantity;
+}
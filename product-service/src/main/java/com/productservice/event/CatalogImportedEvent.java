@@ -0,0 +1,14 @@
+package com.productservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a bulk import has committed. Rows are written with plain JDBC,
+ * so listeners refresh wholesale instead of per product.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogImportedEvent {
+    private final long rowsWritten;
+}
@@ -0,0 +1,34 @@
+package com.productservice.event;
+
+import com.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ProductService after a product is added or its stock changes.
+ * Listeners run after commit (or immediately when there is no transaction).
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        STOCK_CHANGED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final int stockDelta;
+    private final Product product; // Set for CREATED only
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product.getStock(), product);
+    }
+
+    // Every decrement is taken from StockReservationLedger before it is written, so the ledger never needs these
+    public static ProductChangedEvent stockChanged(Long productId, int stockDelta) {
+        return new ProductChangedEvent(Type.STOCK_CHANGED, productId, stockDelta, null);
+    }
+}
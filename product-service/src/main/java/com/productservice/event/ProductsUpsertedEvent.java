@@ -0,0 +1,19 @@
+package com.productservice.event;
+
+import java.util.List;
+
+import com.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ProductImportService after each import batch commits, with the
+ * rows as written (id, sku, category, price, stock), so listeners can apply
+ * the batch incrementally instead of rescanning the table.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsUpsertedEvent {
+    private final List<Product> products;
+}
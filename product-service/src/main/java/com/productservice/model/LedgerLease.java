@@ -0,0 +1,23 @@
+package com.productservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Which instance currently owns the in-memory stock ledger; the owner renews expiresAt while it runs
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ledger_leases")
+public class LedgerLease {
+    @Id
+    private String name;
+    private String owner;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,23 @@
+package com.productservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dedup record so a redelivered stock event is applied at most once
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "processed_events")
+public class ProcessedEvent {
+    @Id
+    private Long eventId;
+    private String outcome; // APPLIED or REJECTED
+    private LocalDateTime processedAt;
+}
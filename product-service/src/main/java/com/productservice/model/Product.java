@@ -1,9 +1,11 @@
 package com.productservice.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +19,17 @@ import lombok.Setter;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset paging: each sort column paired with id as the tiebreaker
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_stock_id", columnList = "stock, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        // Same keys behind a category filter, so a filtered page is still an index range scan
+        @Index(name = "idx_products_category_price_id", columnList = "category, price, id"),
+        @Index(name = "idx_products_category_name_id", columnList = "category, name, id"),
+        @Index(name = "idx_products_category_stock_id", columnList = "category, stock, id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,5 +38,7 @@ public class Product {
     private String category;
     private double price;
     private int stock;
+    @Column(unique = true, length = 64)
+    private String sku; // Supplier natural key, used by bulk import upserts
     
 }
@@ -0,0 +1,23 @@
+package com.productservice.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.model.LedgerLease;
+@Repository
+public interface LedgerLeaseRepository extends JpaRepository<LedgerLease, String> {
+
+	// Renews our own lease or takes over an expired one; 0 while another instance holds it
+	@Modifying
+	@Transactional
+	@Query("update LedgerLease l set l.owner = :owner, l.expiresAt = :expiresAt "
+			+ "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+	int claim(@Param("name") String name, @Param("owner") String owner,
+			@Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+}
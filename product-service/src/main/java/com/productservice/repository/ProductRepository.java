@@ -2,12 +2,26 @@ package com.productservice.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.productservice.model.Product;
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 	List<Product> findByCategory(String category);
 
+	// Keyset page used to load the search index without holding the whole table in memory
+	List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+	// Single conditional statement: no read-check-write race, returns 0 when stock is short
+	@Modifying
+	@Transactional
+	@Query("update Product p set p.stock = p.stock - :quantity where p.id = :productId and p.stock >= :quantity")
+	int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
 }
@@ -0,0 +1,16 @@
+package com.productservice.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page ordered by {@code sortField} then id, selecting only {@code fields}.
+     * Rows come back as field-name maps; the sort field and id are always included
+     * so the caller can build the next cursor.
+     */
+    List<Map<String, Object>> findPage(Set<String> fields, String category, String sortField, boolean descending,
+            Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,85 @@
+package com.productservice.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import com.productservice.model.Product;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public List<Map<String, Object>> findPage(Set<String> fields, String category, String sortField,
+            boolean descending, Object afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        columns.add(sortField);
+        columns.addAll(fields);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(product.get(column).alias(column));
+        }
+        query.multiselect(selections);
+
+        List<Predicate> where = new ArrayList<>();
+        if (category != null) {
+            where.add(cb.equal(product.get("category"), category));
+        }
+        Path<Long> id = product.get("id");
+        if (afterId != null) {
+            Expression<Comparable> sort = product.get(sortField);
+            where.add(after(cb, sort, id, (Comparable) afterValue, afterId, descending));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(descending
+                ? List.of(cb.desc(product.get(sortField)), cb.desc(id))
+                : List.of(cb.asc(product.get(sortField)), cb.asc(id)));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                row.put(column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // (sort, id) strictly after the cursor in the requested direction. Comparisons never match NULL, so
+    // NULL sort values are placed explicitly where MySQL and H2 order them: first ascending, last descending.
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate after(CriteriaBuilder cb, Expression<Comparable> sort, Path<Long> id,
+            Comparable value, Long afterId, boolean descending) {
+        if (value == null) {
+            Predicate nullTail = cb.and(cb.isNull(sort),
+                    descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+            return descending ? nullTail : cb.or(nullTail, cb.isNotNull(sort));
+        }
+        return descending
+                ? cb.or(cb.lessThan(sort, value), cb.and(cb.equal(sort, value), cb.lessThan(id, afterId)), cb.isNull(sort))
+                : cb.or(cb.greaterThan(sort, value), cb.and(cb.equal(sort, value), cb.greaterThan(id, afterId)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.productservice.reservation;
+
+// This instance does not hold the stock ledger lease; the caller should retry (another instance owns it)
+public class LedgerNotOwnedException extends RuntimeException {
+
+    public LedgerNotOwnedException() {
+        super("Stock ledger is owned by another product-service instance");
+    }
+}
@@ -0,0 +1,19 @@
+package com.productservice.reservation;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReservationResult {
+    private final String reservationId; // Null when the hold was refused
+    private final Instant expiresAt;
+    private final List<Long> failedProductIds;
+
+    public boolean isReserved() {
+        return reservationId != null;
+    }
+}
@@ -0,0 +1,702 @@
+package com.productservice.reservation;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.model.LedgerLease;
+import com.productservice.model.Product;
+import com.productservice.repository.LedgerLeaseRepository;
+import com.productservice.repository.ProductRepository;
+import com.productservice.service.ProductService;
+import com.productservice.service.StockBatchWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory stock ledger with TTL holds.
+ * <p>
+ * Each SKU lives in one of a fixed number of lock-striped shards and tracks
+ * {@code available} (free to reserve), {@code reserved} (held), {@code pendingWrite}
+ * (committed but not yet written to the products table) and {@code inFlight} (direct
+ * decrements taken from {@code available} whose database write has not finished). Reserve,
+ * commit and release only touch memory; a scheduled flush writes committed quantities behind
+ * in one JDBC batch, and a sweeper returns expired holds to {@code available}.
+ * <p>
+ * Every stock decrement goes through the ledger ({@link #decrement}, {@link #decrementAll},
+ * {@link #decrementInOrder}), so a sale can only take stock nobody holds. A SKU is loaded from
+ * the database on first use and dropped again once it has been idle for the retention period.
+ * Holds do not survive a restart (they would expire anyway); committed quantities are flushed
+ * on shutdown.
+ * <p>
+ * The ledger assumes it is the only writer of stock, so exactly one product-service instance
+ * may run it. Ownership is a lease row in {@code ledger_leases}, renewed every
+ * {@code products.reservations.lease-renew-ms}; on other instances every ledger call throws
+ * {@link LedgerNotOwnedException} (503), and an owner that fails to renew flushes and drops
+ * its state before another instance can take over.
+ * <p>
+ * A committed quantity the table cannot absorb (stock lowered outside the service) is never
+ * dropped: it stays pending, keeps the SKU's available stock down, is retried on every flush
+ * and is reported through {@code products.reservations.unapplied.units} and
+ * {@code products.reservations.writebehind.failures}.
+ */
+@Component
+public class StockReservationLedger implements StockBatchWriter {
+
+    public enum HoldStatus {
+        ACTIVE,
+        COMMITTED,
+        RELEASED,
+        EXPIRED,
+        NOT_FOUND
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LedgerLeaseRepository leaseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${products.reservations.shards:64}")
+    private int shardCount;
+
+    @Value("${products.reservations.ttl-seconds:600}")
+    private long defaultTtlSeconds;
+
+    @Value("${products.reservations.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    @Value("${products.reservations.retention-seconds:600}")
+    private long retentionSeconds;
+
+    @Value("${products.reservations.lease-ttl-seconds:15}")
+    private long leaseTtlSeconds;
+
+    private static final String LEASE = "stock-ledger";
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean leaseHeld;
+
+    private Shard[] shards;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicInteger unappliedUnits = new AtomicInteger();
+    private Counter writeFailures;
+
+    @PostConstruct
+    public void init() {
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        writeFailures = meterRegistry.counter("products.reservations.writebehind.failures");
+        meterRegistry.gauge("products.reservations.unapplied.units", unappliedUnits);
+        meterRegistry.gauge("products.reservations.lease.held", this, ledger -> ledger.leaseHeld ? 1 : 0);
+        renewLease();
+    }
+
+    // ✅ Single-owner lease: renewed well inside its TTL; losing it flushes and drops all in-memory state
+    @Scheduled(fixedDelayString = "${products.reservations.lease-renew-ms:5000}")
+    public void renewLease() {
+        boolean held;
+        try {
+            held = claimLease();
+        } catch (Exception e) {
+            System.out.println("⚠️ Stock ledger lease renewal failed: " + e.getMessage());
+            held = false;
+        }
+        if (held && !leaseHeld) {
+            System.out.println("✅ Stock ledger lease acquired by " + instanceId);
+            leaseHeld = true;
+        } else if (!held && leaseHeld) {
+            System.out.println("⚠️ Stock ledger lease lost, dropping in-memory holds and stock");
+            leaseHeld = false;
+            flush();
+            clear();
+        }
+    }
+
+    private boolean claimLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(leaseTtlSeconds);
+        if (leaseRepository.claim(LEASE, instanceId, expiresAt, now) == 1) {
+            return true;
+        }
+        if (leaseRepository.existsById(LEASE)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(new LedgerLease(LEASE, instanceId, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // Another instance created it first
+        }
+    }
+
+    private void requireLease() {
+        if (!leaseHeld) {
+            throw new LedgerNotOwnedException();
+        }
+    }
+
+    private void clear() {
+        synchronized (flushLock) {
+            holds.clear();
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    shard.skus.clear();
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            unappliedUnits.set(0);
+        }
+    }
+
+    // ✅ All-or-nothing hold across SKUs; failedProductIds lists unknown or short SKUs
+    public ReservationResult reserve(Map<Long, Integer> items, Long ttlSeconds) {
+        requireLease();
+        List<Long> failed = take(items, (state, quantity) -> state.reserved += quantity);
+        if (!failed.isEmpty()) {
+            return new ReservationResult(null, null, failed);
+        }
+
+        long ttl = Math.min(ttlSeconds != null && ttlSeconds > 0 ? ttlSeconds : defaultTtlSeconds, maxTtlSeconds);
+        Hold hold = new Hold(UUID.randomUUID().toString(), new HashMap<>(items), Instant.now().plusSeconds(ttl));
+        holds.put(hold.id, hold);
+        return new ReservationResult(hold.id, hold.expiresAt, List.of());
+    }
+
+    // ✅ Immediate decrement of one SKU; false when it is unknown or only held stock is left
+    public boolean decrement(Long productId, int quantity) {
+        requireLease();
+        Map<Long, Integer> items = Map.of(productId, quantity);
+        if (!take(items, this::markInFlight).isEmpty()) {
+            return false;
+        }
+        boolean written = false;
+        try {
+            written = productService.tryDecrementStock(productId, quantity);
+        } finally {
+            settle(items, written);
+        }
+        return written;
+    }
+
+    // ✅ All-or-nothing multi-SKU decrement; returns the SKUs that were unknown or short
+    public List<Long> decrementAll(Map<Long, Integer> items) {
+        requireLease();
+        List<Long> failed = take(items, this::markInFlight);
+        if (!failed.isEmpty()) {
+            return failed;
+        }
+        boolean written = false;
+        try {
+            failed = productService.decrementStocks(items);
+            written = failed.isEmpty();
+        } finally {
+            settle(items, written);
+        }
+        return failed;
+    }
+
+    // ✅ Coalesced window: requests are accepted in arrival order from free stock, then written with one update
+    @Override
+    public boolean[] decrementInOrder(Long productId, List<Integer> quantities) {
+        requireLease();
+        boolean[] accepted = new boolean[quantities.size()];
+        List<Integer> taken = new ArrayList<>();
+        Shard shard = shards[shardIndex(productId)];
+        SkuState state;
+        while (true) {
+            if (!ensureLoaded(productId)) {
+                return accepted;
+            }
+            shard.lock.lock();
+            state = shard.skus.get(productId);
+            if (state != null) {
+                break; // Locked
+            }
+            shard.lock.unlock(); // Evicted as idle since it was loaded
+        }
+        try {
+            state.lastUsed = Instant.now();
+            for (int i = 0; i < quantities.size(); i++) {
+                int quantity = quantities.get(i);
+                if (quantity > 0 && state.available >= quantity) {
+                    state.available -= quantity;
+                    markInFlight(state, quantity);
+                    taken.add(quantity);
+                    accepted[i] = true;
+                }
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        if (taken.isEmpty()) {
+            return accepted;
+        }
+
+        int total = taken.stream().mapToInt(Integer::intValue).sum();
+        boolean[] written = null;
+        try {
+            written = productService.decrementInOrder(productId, taken);
+        } finally {
+            int applied = 0;
+            for (int i = 0, t = 0; i < accepted.length; i++) {
+                if (accepted[i]) {
+                    accepted[i] = written != null && written[t];
+                    applied += accepted[i] ? taken.get(t) : 0;
+                    t++;
+                }
+            }
+            if (applied > 0) {
+                settle(Map.of(productId, applied), true);
+            }
+            if (applied < total) {
+                settle(Map.of(productId, total - applied), false);
+            }
+        }
+        return accepted;
+    }
+
+    // ✅ Idempotent: committing an already committed hold reports COMMITTED again
+    public HoldStatus commit(String reservationId) {
+        requireLease();
+        Hold hold = holds.get(reservationId);
+        if (hold == null) {
+            return HoldStatus.NOT_FOUND;
+        }
+        if (Instant.now().isAfter(hold.expiresAt)) {
+            expire(hold);
+        } else if (hold.status.compareAndSet(HoldStatus.ACTIVE, HoldStatus.COMMITTED)) {
+            hold.finishedAt = Instant.now();
+            forEachItem(hold, (state, quantity) -> {
+                state.reserved -= quantity;
+                state.pendingWrite += quantity;
+            });
+        }
+        return hold.status.get();
+    }
+
+    // ✅ Returns the hold to stock; a committed hold is left as is and reported COMMITTED
+    public HoldStatus release(String reservationId) {
+        requireLease();
+        Hold hold = holds.get(reservationId);
+        if (hold == null) {
+            return HoldStatus.NOT_FOUND;
+        }
+        if (hold.status.compareAndSet(HoldStatus.ACTIVE, HoldStatus.RELEASED)) {
+            hold.finishedAt = Instant.now();
+            forEachItem(hold, (state, quantity) -> {
+                state.reserved -= quantity;
+                state.available += quantity;
+            });
+        }
+        return hold.status.get();
+    }
+
+    public Optional<Integer> available(Long productId) {
+        Shard shard = shards[shardIndex(productId)];
+        shard.lock.lock();
+        try {
+            SkuState state = shard.skus.get(productId);
+            return state != null ? Optional.of(state.available) : Optional.empty();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    // ✅ Expiry sweeper; also forgets finished holds once their retention has passed
+    @Scheduled(fixedDelayString = "${products.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        Instant forgetBefore = now.minusSeconds(retentionSeconds);
+        int expired = 0;
+        for (Iterator<Hold> it = holds.values().iterator(); it.hasNext();) {
+            Hold hold = it.next();
+            if (hold.status.get() == HoldStatus.ACTIVE && now.isAfter(hold.expiresAt)) {
+                if (expire(hold)) {
+                    expired++;
+                }
+            } else if (hold.finishedAt != null && hold.finishedAt.isBefore(forgetBefore)) {
+                it.remove();
+            }
+        }
+        if (expired > 0) {
+            System.out.println("🔄 Expired " + expired + " stock holds");
+        }
+
+        // Idle SKUs match the table exactly, so they are dropped and reloaded on next use
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.skus.values().removeIf(state -> state.idle(forgetBefore));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    // ✅ Write-behind: one batched conditional decrement for everything committed since the last flush
+    @Scheduled(fixedDelayString = "${products.reservations.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, Integer> writes = new HashMap<>();
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    for (Map.Entry<Long, SkuState> sku : shard.skus.entrySet()) {
+                        if (sku.getValue().pendingWrite > 0) {
+                            writes.put(sku.getKey(), sku.getValue().pendingWrite);
+                        }
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            if (writes.isEmpty()) {
+                return;
+            }
+
+            List<Long> failed;
+            try {
+                failed = productService.applyReservedStock(writes);
+            } catch (Exception e) {
+                System.out.println("⚠️ Stock write-behind failed, will retry: " + e.getMessage());
+                return;
+            }
+
+            // Commits made during the write stay pending for the next flush; so do refused quantities, which are
+            // already sold: they keep available down and are retried until the table can take them
+            int unapplied = 0;
+            for (Map.Entry<Long, Integer> write : writes.entrySet()) {
+                if (!failed.contains(write.getKey())) {
+                    withSku(write.getKey(), state -> {
+                        state.pendingWrite -= write.getValue();
+                        state.writeFailing = false;
+                    });
+                }
+            }
+            for (Long productId : failed) {
+                // The table had less than the ledger believed: the row was changed outside the service
+                int units = writes.get(productId);
+                unapplied += units;
+                writeFailures.increment();
+                if (withSkuIf(productId, state -> {
+                    boolean first = !state.writeFailing;
+                    state.writeFailing = true;
+                    return first;
+                })) {
+                    System.out.println("⚠️ Write-behind could not apply " + units + " sold units to Product "
+                            + productId + "; kept pending and resyncing from the database");
+                }
+                resync(productId);
+            }
+            unappliedUnits.set(unapplied);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (leaseHeld) {
+            leaseHeld = false;
+            try {
+                // Expire the lease now so another instance takes over without waiting for the TTL
+                leaseRepository.claim(LEASE, instanceId, LocalDateTime.now().minusSeconds(1), LocalDateTime.now());
+            } catch (Exception e) {
+                System.out.println("⚠️ Could not hand back stock ledger lease: " + e.getMessage());
+            }
+        }
+    }
+
+    // Imports overwrite stock wholesale, so every loaded SKU is re-read
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        List<Long> loaded = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                loaded.addAll(shard.skus.keySet());
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        loaded.forEach(this::resync);
+    }
+
+    // Optimistic: the database read only counts if no direct decrement started or was still running around it.
+    // Otherwise the SKU is marked and the last in-flight write to finish runs the resync again.
+    private void resync(Long productId) {
+        synchronized (flushLock) {
+            long[] version = new long[1];
+            if (!withSkuIf(productId, state -> {
+                version[0] = state.version;
+                return state.inFlight == 0;
+            })) {
+                withSku(productId, state -> state.resyncPending = true);
+                return;
+            }
+            int stock = readFromPrimary(productId).map(Product::getStock).orElse(0);
+            if (!withSkuIf(productId, state -> {
+                if (state.version != version[0] || state.inFlight != 0) {
+                    return false;
+                }
+                state.available = stock - state.reserved - state.pendingWrite;
+                state.resyncPending = false;
+                return true;
+            })) {
+                withSku(productId, state -> state.resyncPending = true);
+            }
+        }
+    }
+
+    // Caller holds the shard lock
+    private void markInFlight(SkuState state, int quantity) {
+        state.inFlight += quantity;
+        state.version++;
+    }
+
+    // ✅ Ends a direct decrement: a write that committed leaves available as it is, anything else gives it back.
+    // Inside a caller's transaction the outcome is only known once that transaction completes.
+    private void settle(Map<Long, Integer> items, boolean written) {
+        if (written && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finish(items, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            finish(items, written);
+        }
+    }
+
+    private void finish(Map<Long, Integer> items, boolean committed) {
+        List<Long> resync = new ArrayList<>();
+        items.forEach((productId, quantity) -> withSku(productId, state -> {
+            state.inFlight -= quantity;
+            if (!committed) {
+                state.available += quantity;
+            }
+            if (state.inFlight == 0 && state.resyncPending) {
+                resync.add(productId);
+            }
+        }));
+        if (!committed) {
+            // A refused write means the table had less than the ledger believed
+            items.keySet().forEach(resync::add);
+        }
+        resync.stream().distinct().forEach(this::resync);
+    }
+
+    // ✅ Moves the quantities out of available for every SKU, or for none; returns the unknown or short SKUs
+    private List<Long> take(Map<Long, Integer> items, SkuUpdate onTaken) {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            if (item.getValue() == null || item.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + item.getKey());
+            }
+        }
+
+        TreeSet<Integer> shardIndexes = new TreeSet<>();
+        items.keySet().forEach(productId -> shardIndexes.add(shardIndex(productId)));
+        while (true) {
+            List<Long> failed = new ArrayList<>();
+            for (Long productId : items.keySet()) {
+                if (!ensureLoaded(productId)) {
+                    failed.add(productId);
+                }
+            }
+            if (!failed.isEmpty()) {
+                return failed;
+            }
+
+            // Shards are always locked in index order so multi-SKU calls cannot deadlock
+            shardIndexes.forEach(index -> shards[index].lock.lock());
+            try {
+                if (items.keySet().stream().anyMatch(productId -> sku(productId) == null)) {
+                    continue; // Evicted as idle since it was loaded; load it again
+                }
+                for (Map.Entry<Long, Integer> item : items.entrySet()) {
+                    if (sku(item.getKey()).available < item.getValue()) {
+                        failed.add(item.getKey());
+                    }
+                }
+                if (!failed.isEmpty()) {
+                    return failed;
+                }
+                Instant now = Instant.now();
+                for (Map.Entry<Long, Integer> item : items.entrySet()) {
+                    SkuState state = sku(item.getKey());
+                    state.available -= item.getValue();
+                    state.lastUsed = now;
+                    onTaken.apply(state, item.getValue());
+                }
+                return failed;
+            } finally {
+                shardIndexes.descendingSet().forEach(index -> shards[index].lock.unlock());
+            }
+        }
+    }
+
+    private boolean ensureLoaded(Long productId) {
+        Shard shard = shards[shardIndex(productId)];
+        shard.lock.lock();
+        try {
+            if (shard.skus.containsKey(productId)) {
+                return true;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+
+        Optional<Product> product = readFromPrimary(productId);
+        if (product.isEmpty()) {
+            return false;
+        }
+        shard.lock.lock();
+        try {
+            shard.skus.computeIfAbsent(productId, id -> new SkuState(product.get().getStock()));
+        } finally {
+            shard.lock.unlock();
+        }
+        return true;
+    }
+
+    // A read-write transaction keeps stock reads on the primary when replica routing is enabled
+    private Optional<Product> readFromPrimary(Long productId) {
+        return transactionTemplate.execute(tx -> productRepository.findById(productId));
+    }
+
+    private boolean expire(Hold hold) {
+        if (!hold.status.compareAndSet(HoldStatus.ACTIVE, HoldStatus.EXPIRED)) {
+            return false;
+        }
+        hold.finishedAt = Instant.now();
+        forEachItem(hold, (state, quantity) -> {
+            state.reserved -= quantity;
+            state.available += quantity;
+        });
+        return true;
+    }
+
+    private void forEachItem(Hold hold, SkuUpdate update) {
+        hold.items.forEach((productId, quantity) -> withSku(productId, state -> update.apply(state, quantity)));
+    }
+
+    private void withSku(Long productId, Consumer<SkuState> update) {
+        Shard shard = shards[shardIndex(productId)];
+        shard.lock.lock();
+        try {
+            SkuState state = shard.skus.get(productId);
+            if (state != null) {
+                update.accept(state);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private boolean withSkuIf(Long productId, Predicate<SkuState> update) {
+        Shard shard = shards[shardIndex(productId)];
+        shard.lock.lock();
+        try {
+            SkuState state = shard.skus.get(productId);
+            return state != null && update.test(state);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    // Caller holds the shard lock
+    private SkuState sku(Long productId) {
+        return shards[shardIndex(productId)].skus.get(productId);
+    }
+
+    private int shardIndex(Long productId) {
+        return Math.floorMod(Long.hashCode(productId) * 0x9E3779B9, shardCount);
+    }
+
+    @FunctionalInterface
+    private interface SkuUpdate {
+        void apply(SkuState state, int quantity);
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, SkuState> skus = new HashMap<>();
+    }
+
+    private static final class SkuState {
+        int available;
+        int reserved;
+        int pendingWrite;
+        int inFlight;
+        boolean writeFailing; // Last flush could not apply pendingWrite to the table
+        long version; // Bumped by every direct decrement, so a resync can tell it raced one
+        boolean resyncPending;
+        Instant lastUsed = Instant.now();
+
+        SkuState(int stock) {
+            this.available = stock;
+        }
+
+        boolean idle(Instant before) {
+            return reserved == 0 && pendingWrite == 0 && inFlight == 0 && !resyncPending && lastUsed.isBefore(before);
+        }
+    }
+
+    private static final class Hold {
+        final String id;
+        final Map<Long, Integer> items;
+        final Instant expiresAt;
+        final AtomicReference<HoldStatus> status = new AtomicReference<>(HoldStatus.ACTIVE);
+        volatile Instant finishedAt;
+
+        Hold(String id, Map<Long, Integer> items, Instant expiresAt) {
+            this.id = id;
+            this.items = items;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
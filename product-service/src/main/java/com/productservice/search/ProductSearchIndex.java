@@ -0,0 +1,473 @@
+package com.productservice.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.productservice.model.Product;
+
+/**
+ * In-memory inverted index over product name and category, with exact SKU lookup.
+ * <p>
+ * Terms live in a sorted skip list, so a prefix lookup is a sub-map range scan.
+ * Typo tolerance (one edit) uses a deletion neighbourhood: every indexed word is
+ * also registered under each single-character deletion, and a query term is
+ * matched through its own deletions, so no term dictionary scan is needed.
+ * Terms with digits are left out of the neighbourhood, and SKUs are not tokenized
+ * at all but matched whole: an edit away from a code is a different product, and
+ * one entry per character of every unique code would dominate the heap.
+ * Browsing (no query text) ranks by ID, so it reads the first {@code limit} entries
+ * of ID-sorted postings (all products, or per category) and takes its facets from
+ * price-bucket counts kept up to date on every write; it never copies or sorts the
+ * whole catalog. Scored searches order only their top {@code limit} hits, through a
+ * bounded heap.
+ * Reads are lock-free; writes are serialized.
+ */
+public class ProductSearchIndex {
+
+    static final double[] PRICE_BUCKETS = { 10, 50, 100, 500 };
+
+    private static final int MAX_PREFIX_TERMS = 256;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> deletions = new ConcurrentHashMap<>();
+    private final Map<String, Long> skus = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+    // Keyed by the category as stored (facet label); the filter matches ignoring case. Skip-list sizes are
+    // O(n), so counts come from the price buckets, whose sum is the category size.
+    private final Map<String, ConcurrentSkipListSet<Long>> categoryPostings = new ConcurrentHashMap<>();
+    private final Map<String, AtomicIntegerArray> categoryPriceBuckets = new ConcurrentHashMap<>();
+
+    public synchronized void index(Product product) {
+        Doc previous = docs.get(product.getId());
+        if (previous != null) {
+            for (String term : previous.terms) {
+                unpost(term, previous.id);
+            }
+            if (previous.sku != null) {
+                skus.remove(lower(previous.sku), previous.id);
+            }
+            uncount(previous);
+        }
+
+        Set<String> terms = new HashSet<>(tokenize(product.getName()));
+        terms.addAll(tokenize(product.getCategory()));
+        Doc doc = new Doc(product.getId(), product.getName(), product.getCategory(), product.getPrice(),
+                product.getStock(), product.getSku(), terms.toArray(new String[0]));
+        docs.put(doc.id, doc);
+        ids.add(doc.id);
+        for (String term : doc.terms) {
+            post(term, doc.id);
+        }
+        if (doc.sku != null) {
+            skus.put(lower(doc.sku), doc.id);
+        }
+        count(doc);
+    }
+
+    public void adjustStock(Long productId, int delta) {
+        Doc doc = docs.get(productId);
+        if (doc != null) {
+            doc.stock.addAndGet(delta);
+        }
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    public SearchResult search(String query, String category, Double minPrice, Double maxPrice, boolean inStockOnly,
+            int limit) {
+        long start = System.nanoTime();
+
+        List<String> terms = tokenize(query);
+        String categoryFilter = category != null ? category.toLowerCase(Locale.ROOT) : null;
+        if (terms.isEmpty() && minPrice == null && maxPrice == null && !inStockOnly) {
+            return browse(categoryFilter, limit, start);
+        }
+
+        // Browsing with price or stock filters still has to look at every document, but without a score map
+        Map<Long, Integer> scores = terms.isEmpty() ? null : match(query, terms);
+        Iterable<Doc> candidates = scores == null ? docs.values() : () -> scores.keySet().stream()
+                .map(docs::get).iterator();
+
+        TopHits hits = new TopHits(limit, scores);
+        Map<String, Integer> categoryFacets = new HashMap<>();
+        Map<String, Integer> priceFacets = emptyPriceFacets();
+
+        for (Doc doc : candidates) {
+            if (doc == null || (inStockOnly && doc.stock.get() <= 0)) {
+                continue;
+            }
+            boolean inPriceRange = (minPrice == null || doc.price >= minPrice) && (maxPrice == null || doc.price <= maxPrice);
+            boolean inCategory = categoryFilter == null || categoryFilter.equals(lower(doc.category));
+
+            // Each facet is counted with every filter applied except its own
+            if (inPriceRange) {
+                categoryFacets.merge(String.valueOf(doc.category), 1, Integer::sum);
+            }
+            if (inCategory) {
+                priceFacets.merge(bucketLabel(bucket(doc.price)), 1, Integer::sum);
+            }
+            if (inPriceRange && inCategory) {
+                hits.offer(doc);
+            }
+        }
+
+        return new SearchResult(hits.total, hits.items(), categoryFacets, priceFacets,
+                (System.nanoTime() - start) / 1000);
+    }
+
+    // ✅ No query text and no per-document filter: facets come from the maintained counts, and the first page
+    // is the head of the ID-sorted postings (several only when the category exists in more than one casing)
+    private SearchResult browse(String categoryFilter, int limit, long start) {
+        Map<String, Integer> categoryFacets = new HashMap<>();
+        Map<String, Integer> priceFacets = emptyPriceFacets();
+        TopHits hits = new TopHits(limit, null);
+        int total = 0;
+
+        for (Map.Entry<String, AtomicIntegerArray> entry : categoryPriceBuckets.entrySet()) {
+            AtomicIntegerArray buckets = entry.getValue();
+            int size = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                size += buckets.get(i);
+            }
+            if (size == 0) {
+                continue;
+            }
+            categoryFacets.put(entry.getKey(), size);
+            if (categoryFilter != null && !categoryFilter.equals(lower(entry.getKey()))) {
+                continue;
+            }
+            total += size;
+            for (int i = 0; i < buckets.length(); i++) {
+                priceFacets.merge(bucketLabel(i), buckets.get(i), Integer::sum);
+            }
+            if (categoryFilter != null) {
+                offerFirst(hits, categoryPostings.get(entry.getKey()), limit);
+            }
+        }
+        if (categoryFilter == null) {
+            offerFirst(hits, ids, limit);
+        }
+
+        return new SearchResult(total, hits.items(), categoryFacets, priceFacets, (System.nanoTime() - start) / 1000);
+    }
+
+    private void offerFirst(TopHits hits, Set<Long> sortedIds, int limit) {
+        if (sortedIds == null) {
+            return;
+        }
+        int offered = 0;
+        for (Iterator<Long> it = sortedIds.iterator(); it.hasNext() && offered < limit; offered++) {
+            Doc doc = docs.get(it.next());
+            if (doc != null) {
+                hits.offer(doc);
+            }
+        }
+    }
+
+    // A query that is a whole SKU (ignoring case) finds that product alone. Otherwise AND across query
+    // terms; the last term also matches as a prefix (search-as-you-type)
+    private Map<Long, Integer> match(String query, List<String> terms) {
+        Long skuId = skus.get(query.trim().toLowerCase(Locale.ROOT));
+        if (skuId != null) {
+            Map<Long, Integer> hit = new HashMap<>();
+            hit.put(skuId, 3);
+            return hit;
+        }
+
+        Map<Long, Integer> result = null;
+        for (int i = 0; i < terms.size(); i++) {
+            Map<Long, Integer> termHits = matchTerm(terms.get(i), i == terms.size() - 1);
+            if (result == null) {
+                result = termHits;
+            } else {
+                Map<Long, Integer> smaller = result.size() <= termHits.size() ? result : termHits;
+                Map<Long, Integer> larger = smaller == result ? termHits : result;
+                Map<Long, Integer> intersection = new HashMap<>();
+                for (Map.Entry<Long, Integer> hit : smaller.entrySet()) {
+                    Integer other = larger.get(hit.getKey());
+                    if (other != null) {
+                        intersection.put(hit.getKey(), hit.getValue() + other);
+                    }
+                }
+                result = intersection;
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Integer> matchTerm(String term, boolean prefix) {
+        Map<Long, Integer> hits = new HashMap<>();
+        addHits(hits, postings.get(term), 3);
+
+        if (prefix) {
+            NavigableMap<String, Set<Long>> range = postings.subMap(term, false, term + Character.MAX_VALUE, false);
+            int expanded = 0;
+            for (Set<Long> ids : range.values()) {
+                addHits(hits, ids, 2);
+                if (++expanded >= MAX_PREFIX_TERMS) {
+                    break;
+                }
+            }
+        }
+
+        if (hits.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            for (String candidate : fuzzyCandidates(term)) {
+                addHits(hits, postings.get(candidate), 1);
+            }
+        }
+        return hits;
+    }
+
+    private Set<String> fuzzyCandidates(String term) {
+        Set<String> candidates = new HashSet<>();
+        // Indexed term has one extra character
+        candidates.addAll(deletions.getOrDefault(term, Collections.emptySet()));
+        for (String variant : deletionsOf(term)) {
+            // Query has one extra character
+            if (postings.containsKey(variant)) {
+                candidates.add(variant);
+            }
+            // One substituted or transposed character
+            for (String indexed : deletions.getOrDefault(variant, Collections.emptySet())) {
+                if (withinOneEdit(term, indexed)) {
+                    candidates.add(indexed);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void post(String term, Long id) {
+        postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(id);
+        if (fuzzy(term)) {
+            for (String variant : deletionsOf(term)) {
+                deletions.computeIfAbsent(variant, v -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    private void unpost(String term, Long id) {
+        Set<Long> ids = postings.get(term);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            postings.remove(term);
+            if (!fuzzy(term)) {
+                return;
+            }
+            for (String variant : deletionsOf(term)) {
+                Set<String> terms = deletions.get(variant);
+                if (terms != null) {
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        deletions.remove(variant);
+                    }
+                }
+            }
+        }
+    }
+
+    private void count(Doc doc) {
+        String key = String.valueOf(doc.category);
+        categoryPostings.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(doc.id);
+        categoryPriceBuckets.computeIfAbsent(key, k -> new AtomicIntegerArray(PRICE_BUCKETS.length + 1))
+                .incrementAndGet(bucket(doc.price));
+    }
+
+    private void uncount(Doc doc) {
+        String key = String.valueOf(doc.category);
+        Set<Long> categoryIds = categoryPostings.get(key);
+        if (categoryIds != null) {
+            categoryIds.remove(doc.id);
+        }
+        AtomicIntegerArray buckets = categoryPriceBuckets.get(key);
+        if (buckets != null) {
+            buckets.decrementAndGet(bucket(doc.price));
+        }
+    }
+
+    private static Map<String, Integer> emptyPriceFacets() {
+        Map<String, Integer> priceFacets = new LinkedHashMap<>();
+        for (int i = 0; i <= PRICE_BUCKETS.length; i++) {
+            priceFacets.put(bucketLabel(i), 0);
+        }
+        return priceFacets;
+    }
+
+    private static void addHits(Map<Long, Integer> hits, Set<Long> ids, int score) {
+        if (ids != null) {
+            for (Long id : ids) {
+                hits.merge(id, score, Math::max);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean fuzzy(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> deletionsOf(String term) {
+        List<String> variants = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    // Same length: at most one substitution, or one adjacent transposition
+    private static boolean withinOneEdit(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int first = -1;
+        int diffs = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                if (diffs++ == 0) {
+                    first = i;
+                }
+            }
+        }
+        if (diffs <= 1) {
+            return true;
+        }
+        return diffs == 2 && first + 1 < a.length()
+                && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first);
+    }
+
+    private static int bucket(double price) {
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            if (price < PRICE_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return PRICE_BUCKETS.length;
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "0-" + (int) PRICE_BUCKETS[0];
+        }
+        if (bucket == PRICE_BUCKETS.length) {
+            return (int) PRICE_BUCKETS[bucket - 1] + "+";
+        }
+        return (int) PRICE_BUCKETS[bucket - 1] + "-" + (int) PRICE_BUCKETS[bucket];
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Best {@code limit} hits by score, then ID, in a heap whose root is the worst kept
+     * hit: O(n log limit) instead of sorting every match.
+     */
+    private static final class TopHits {
+        final int limit;
+        final Map<Long, Integer> scores;
+        final Comparator<Doc> order;
+        final PriorityQueue<Doc> heap;
+        int total;
+
+        TopHits(int limit, Map<Long, Integer> scores) {
+            this.limit = Math.max(limit, 0);
+            this.scores = scores;
+            this.order = Comparator.<Doc>comparingInt(doc -> -score(doc)).thenComparing(doc -> doc.id);
+            this.heap = new PriorityQueue<>(Math.max(this.limit, 1), order.reversed());
+        }
+
+        void offer(Doc doc) {
+            total++;
+            if (heap.size() < limit) {
+                heap.add(doc);
+            } else if (limit > 0 && order.compare(doc, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        }
+
+        List<Product> items() {
+            List<Doc> best = new ArrayList<>(heap);
+            best.sort(order);
+            List<Product> items = new ArrayList<>(best.size());
+            for (Doc doc : best) {
+                items.add(doc.toProduct());
+            }
+            return items;
+        }
+
+        private int score(Doc doc) {
+            return scores != null ? scores.get(doc.id) : 0;
+        }
+    }
+
+    private static final class Doc {
+        final Long id;
+        final String name;
+        final String category;
+        final double price;
+        final AtomicInteger stock;
+        final String sku;
+        final String[] terms; // Distinct; an array costs a fraction of a set per document
+
+        Doc(Long id, String name, String category, double price, int stock, String sku, String[] terms) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.price = price;
+            this.stock = new AtomicInteger(stock);
+            this.sku = sku;
+            this.terms = terms;
+        }
+
+        Product toProduct() {
+            return new Product(id, name, category, price, stock.get(), sku);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.productservice.search;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.event.ProductChangedEvent;
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+
+/**
+ * Owns the search index: loads it once the application is ready and keeps it
+ * current from committed product changes.
+ */
+@Service
+public class ProductSearchService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${products.search.load-page-size:1000}")
+    private int loadPageSize;
+
+    @Value("${products.search.max-limit:100}")
+    private int maxLimit;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(loadPageSize));
+            page.forEach(index::index);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == loadPageSize);
+        System.out.println("✅ Search index loaded: " + index.size() + " products in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Imported rows bypass ProductChangedEvent; re-read everything (index() replaces existing docs)
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            index.index(event.getProduct());
+        } else {
+            index.adjustStock(event.getProductId(), event.getStockDelta());
+        }
+    }
+
+    public SearchResult search(String query, String category, Double minPrice, Double maxPrice, boolean inStockOnly,
+            int limit) {
+        return index.search(query, category, minPrice, maxPrice, inStockOnly, Math.max(1, Math.min(limit, maxLimit)));
+    }
+}
@@ -0,0 +1,19 @@
+package com.productservice.search;
+
+import java.util.List;
+import java.util.Map;
+
+import com.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+    private final int total;
+    private final List<Product> items;
+    private final Map<String, Integer> categoryFacets;
+    private final Map<String, Integer> priceFacets;
+    private final long tookMicros;
+}
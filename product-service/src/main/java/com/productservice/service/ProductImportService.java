@@ -0,0 +1,261 @@
+package com.productservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.event.ProductsUpsertedEvent;
+import com.productservice.model.Product;
+
+// ✅ Streams a supplier catalog (CSV or NDJSON) into products with batched upserts keyed on SKU
+@Service
+public class ProductImportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String UPSERT_SQL = "INSERT INTO products (sku, name, category, price, stock) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE name = VALUES(name), category = VALUES(category), "
+            + "price = VALUES(price), stock = VALUES(stock)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${products.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${products.import.progress-every-batches:10}")
+    private int progressEveryBatches;
+
+    @Value("${products.import.max-reported-rejects:100}")
+    private int maxReportedRejects;
+
+    /**
+     * Reads {@code source} line by line and upserts valid rows in batches, each batch in its
+     * own transaction. Invalid rows are skipped and reported; so are rows the database refuses,
+     * found by retrying a failed batch row by row. {@code progress} receives a snapshot every
+     * few batches. Returns the final summary.
+     */
+    public Map<String, Object> importProducts(BufferedReader source, String format,
+            Consumer<Map<String, Object>> progress) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportState state = new ImportState();
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        Map<String, Integer> columns = null;
+        String line;
+        long lineNumber = 0;
+        while ((line = source.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (CSV.equals(format) && columns == null) {
+                columns = csvHeader(line);
+                continue;
+            }
+
+            state.processed++;
+            try {
+                Product product = CSV.equals(format) ? fromCsv(line, columns) : objectMapper.readValue(line, Product.class);
+                validate(product);
+                batch.add(product);
+                batchLines.add(lineNumber);
+            } catch (Exception e) {
+                state.reject(lineNumber, e.getMessage(), maxReportedRejects);
+                continue;
+            }
+
+            if (batch.size() == batchSize) {
+                flush(batch, batchLines, state);
+                if (state.batches % progressEveryBatches == 0) {
+                    progress.accept(state.snapshot("RUNNING", start));
+                }
+            }
+        }
+        flush(batch, batchLines, state);
+
+        if (state.written > 0) {
+            eventPublisher.publishEvent(new CatalogImportedEvent(state.written));
+        }
+        Map<String, Object> summary = state.snapshot("COMPLETED", start);
+        summary.put("rejects", state.rejects);
+        System.out.println("✅ Product import finished: " + summary.get("written") + " written, "
+                + summary.get("rejected") + " rejected in " + summary.get("elapsedMs") + " ms");
+        return summary;
+    }
+
+    private void flush(List<Product> batch, List<Long> lines, ImportState state) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Product> written = batch;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(),
+                    (ps, product) -> {
+                        ps.setString(1, product.getSku());
+                        ps.setString(2, product.getName());
+                        ps.setString(3, product.getCategory());
+                        ps.setDouble(4, product.getPrice());
+                        ps.setInt(5, product.getStock());
+                    }));
+            state.written += batch.size();
+        } catch (DataAccessException e) {
+            // ✅ One bad row (too long, bad charset, ...) rolled back the whole batch: find it row by row
+            written = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Product product = batch.get(i);
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, product.getSku(), product.getName(), product.getCategory(),
+                            product.getPrice(), product.getStock());
+                    written.add(product);
+                    state.written++;
+                } catch (DataAccessException rowError) {
+                    state.reject(lines.get(i), rowError.getMostSpecificCause().getMessage(), maxReportedRejects);
+                }
+            }
+        }
+        if (!written.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsUpsertedEvent(readBack(written)));
+        }
+        state.batches++;
+        batch.clear();
+        lines.clear();
+    }
+
+    // Upserts don't return ids, so fetch the committed rows back by SKU (unique index, one query per batch)
+    private List<Product> readBack(List<Product> written) {
+        String placeholders = written.stream().map(p -> "?").collect(Collectors.joining(","));
+        return jdbcTemplate.query("SELECT id, sku, category, price, stock FROM products WHERE sku IN (" + placeholders + ")",
+                BeanPropertyRowMapper.newInstance(Product.class), written.stream().map(Product::getSku).toArray());
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : List.of("sku", "name", "price", "stock")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static Product fromCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        if (values.size() < columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns, got " + values.size());
+        }
+        Product product = new Product();
+        product.setSku(values.get(columns.get("sku")).trim());
+        product.setName(values.get(columns.get("name")).trim());
+        if (columns.containsKey("category")) {
+            product.setCategory(values.get(columns.get("category")).trim());
+        }
+        product.setPrice(Double.parseDouble(values.get(columns.get("price")).trim()));
+        product.setStock(Integer.parseInt(values.get(columns.get("stock")).trim()));
+        return product;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void validate(Product product) {
+        if (product.getSku() == null || product.getSku().isBlank() || product.getSku().length() > 64) {
+            throw new IllegalArgumentException("sku is required (max 64 characters)");
+        }
+        if (product.getName() == null || product.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (product.getPrice() < 0 || product.getStock() < 0) {
+            throw new IllegalArgumentException("price and stock must not be negative");
+        }
+    }
+
+    private static class ImportState {
+        long processed;
+        long written;
+        long rejected;
+        long batches;
+        final List<Map<String, Object>> rejects = new ArrayList<>();
+
+        void reject(long line, String reason, int maxReported) {
+            rejected++;
+            if (rejects.size() < maxReported) {
+                Map<String, Object> reject = new LinkedHashMap<>();
+                reject.put("line", line);
+                reject.put("reason", reason);
+                rejects.add(reject);
+            }
+        }
+
+        Map<String, Object> snapshot(String status, long start) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("status", status);
+            snapshot.put("processed", processed);
+            snapshot.put("written", written);
+            snapshot.put("rejected", rejected);
+            snapshot.put("elapsedMs", System.currentTimeMillis() - start);
+            return snapshot;
+        }
+    }
+}
@@ -1,40 +1,275 @@
 package com.productservice.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import com.productservice.cache.CatalogCache;
+import com.productservice.cache.CatalogSnapshot;
+import com.productservice.event.ProductChangedEvent;
 import com.productservice.model.Product;
 import com.productservice.repository.ProductRepository;
 @Service
 public class ProductService {
+    private static final Set<String> FIELDS = Set.of("id", "sku", "name", "category", "price", "stock");
+    private static final Set<String> SORTS = Set.of("id", "name", "price", "stock");
+
 	@Autowired
     private ProductRepository productRepository;
 
+	@Autowired
+    private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+    private CatalogCache catalogCache;
+
+	@Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${products.page.max-size:500}")
+    private int maxPageSize;
+
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return getCatalog().getProducts();
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        return getCategoryCatalog(category).getProducts();
+    }
+
+    // ✅ Cached listings with their ETag; read-only so a cache miss is served by a replica when routing is on
+    @Transactional(readOnly = true)
+    public CatalogSnapshot getCatalog() {
+        return catalogCache.all(productRepository::findAll);
+    }
+
+    @Transactional(readOnly = true)
+    public CatalogSnapshot getCategoryCatalog(String category) {
+        return catalogCache.category(category, () -> productRepository.findByCategory(category));
     }
     
-    public void updateStock(Long productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    // ✅ Keyset page sorted by price/name/stock, selecting only the requested fields
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductPage(String fields, String category, String sort, String direction,
+            String after, int size) {
+        if (!SORTS.contains(sort)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sort);
+        }
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        Set<String> selected = fields == null || fields.isBlank() ? FIELDS : new LinkedHashSet<>();
+        if (selected.isEmpty()) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+                selected.add(name);
+            }
+        }
+
+        Object afterValue = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodeCursor(after);
+            if (!cursor[0].equals(sort) || !cursor[1].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            afterId = Long.valueOf(cursor[2]);
+            afterValue = parseSortValue(sort, cursor[3]);
+        }
+
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        List<Map<String, Object>> rows = productRepository.findPage(selected, category, sort, descending,
+                afterValue, afterId, limit);
 
-        if (product.getStock() >= quantity) {
-            product.setStock(product.getStock() - quantity); // ✅ Reduce stock
-            productRepository.save(product);
-        } else {
-            throw new RuntimeException("Insufficient stock");
+        String nextCursor = null;
+        if (rows.size() == limit) {
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(sort, descending ? "desc" : "asc", last.get("id"), last.get(sort));
         }
+        // Cursor columns are always fetched; drop the ones the client did not ask for
+        for (Map<String, Object> row : rows) {
+            row.keySet().retainAll(selected);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", rows);
+        response.put("nextCursor", nextCursor);
+        return response;
     }
 
+    // A NULL sort value (only name can be NULL) is encoded by leaving the value part out, so it
+    // cannot be confused with a product literally named "null"
+    private static String encodeCursor(String sort, String direction, Object id, Object value) {
+        String raw = sort + ":" + direction + ":" + id + (value == null ? "" : ":" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + Arrays.toString(parts));
+        }
+        return parts.length == 4 ? parts : Arrays.copyOf(parts, 4);
+    }
+
+    private static Object parseSortValue(String sort, String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (sort) {
+            case "price":
+                return Double.valueOf(value);
+            case "stock":
+                return Integer.valueOf(value);
+            case "id":
+                return Long.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    // Stock decrements below are the database half of StockReservationLedger's decrement methods;
+    // call those instead, so held stock is never sold.
+
+    // ✅ Atomic conditional decrement: true when the stock was reduced
+    public boolean tryDecrementStock(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        if (productRepository.decrementStock(productId, quantity) != 1) {
+            return false;
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId, -quantity));
+        return true;
+    }
+
+    // ✅ One transaction for a coalesced window: the whole window in one conditional update when it fits,
+    // otherwise lock the row and accept requests in arrival order while stock lasts
+    @Transactional
+    public boolean[] decrementInOrder(Long productId, List<Integer> quantities) {
+        boolean[] accepted = new boolean[quantities.size()];
+        int total = quantities.stream().mapToInt(Integer::intValue).sum();
+
+        if (productRepository.decrementStock(productId, total) == 1) {
+            Arrays.fill(accepted, true);
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId, -total));
+            return accepted;
+        }
+
+        List<Integer> stock = jdbcTemplate.queryForList("SELECT stock FROM products WHERE id = ? FOR UPDATE",
+                Integer.class, productId);
+        if (stock.isEmpty()) {
+            return accepted;
+        }
+        int remaining = stock.get(0);
+        int applied = 0;
+        for (int i = 0; i < quantities.size(); i++) {
+            if (quantities.get(i) <= remaining) {
+                remaining -= quantities.get(i);
+                applied += quantities.get(i);
+                accepted[i] = true;
+            }
+        }
+        if (applied > 0) {
+            productRepository.decrementStock(productId, applied);
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId, -applied));
+        }
+        return accepted;
+    }
+
+    // ✅ Multi-SKU decrement in one JDBC batch; all-or-nothing, returns the product IDs that were short
+    @Transactional
+    public List<Long> decrementStocks(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> items = new ArrayList<>(quantities.entrySet());
+        items.sort(Map.Entry.comparingByKey()); // Fixed lock order across concurrent batches
+
+        for (Map.Entry<Long, Integer> item : items) {
+            if (item.getValue() == null || item.getValue() <= 0) {
+                throw new RuntimeException("Quantity must be positive");
+            }
+        }
+
+        int[] updated = batchDecrement(items);
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                failed.add(items.get(i).getKey());
+            }
+        }
+        if (!failed.isEmpty()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return failed;
+        }
+
+        // Delivered after commit by the transactional listeners
+        for (Map.Entry<Long, Integer> item : items) {
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(item.getKey(), -item.getValue()));
+        }
+        return failed;
+    }
+
+    // ✅ Write-behind target for committed reservations: applies each SKU independently, returns the ones that were short
+    @Transactional
+    public List<Long> applyReservedStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> items = new ArrayList<>(quantities.entrySet());
+        items.sort(Map.Entry.comparingByKey());
+        int[] updated = batchDecrement(items);
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                failed.add(items.get(i).getKey());
+            } else {
+                eventPublisher.publishEvent(
+                        ProductChangedEvent.stockChanged(items.get(i).getKey(), -items.get(i).getValue()));
+            }
+        }
+        return failed;
+    }
+
+    private int[] batchDecrement(List<Map.Entry<Long, Integer>> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?",
+                items, items.size(), (ps, item) -> {
+                    ps.setInt(1, item.getValue());
+                    ps.setLong(2, item.getKey());
+                    ps.setInt(3, item.getValue());
+                })[0];
+    }
 
 }
@@ -0,0 +1,13 @@
+package com.productservice.service;
+
+import java.util.List;
+
+/**
+ * Applies a window of decrements for one product in a single database write.
+ * Requests are considered in arrival order; each accepted one fits in the stock
+ * left after the ones accepted before it.
+ */
+public interface StockBatchWriter {
+
+    boolean[] decrementInOrder(Long productId, List<Integer> quantities);
+}
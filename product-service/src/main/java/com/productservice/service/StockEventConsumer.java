@@ -0,0 +1,87 @@
+package com.productservice.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productservice.model.ProcessedEvent;
+import com.productservice.model.StockEvent;
+import com.productservice.repository.ProcessedEventRepository;
+import com.productservice.reservation.LedgerNotOwnedException;
+import com.productservice.reservation.StockReservationLedger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// ✅ Applies STOCK_DECREMENT events before acknowledging, at most once per event ID
+@Service
+public class StockEventConsumer {
+
+    @Autowired
+    private StockReservationLedger reservationLedger;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter rejected;
+
+    // A rejected decrement is acknowledged, so this counter is the only trace of it; alert on any increase
+    @PostConstruct
+    void registerMetrics() {
+        rejected = meterRegistry.counter("products.stock.events.rejected");
+    }
+
+    // Returns once every event is committed with its dedup record; a DataAccessException means the relay must retry
+    public void accept(List<StockEvent> events) {
+        for (StockEvent event : events) {
+            handle(event);
+        }
+    }
+
+    private void handle(StockEvent event) {
+        if (!"STOCK_DECREMENT".equals(event.getEventType())) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> apply(event));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent redelivery committed the dedup row first; this transaction's decrement rolled back
+            System.out.println("ℹ️ Stock event " + event.getEventId() + " already applied");
+        }
+    }
+
+    private void apply(StockEvent event) {
+        if (processedEventRepository.existsById(event.getEventId())) {
+            return; // Redelivery
+        }
+
+        String outcome = "APPLIED";
+        try {
+            Long productId = Long.valueOf(event.getPayload().get("productId").toString());
+            int quantity = Integer.parseInt(event.getPayload().get("quantity").toString());
+            if (!reservationLedger.decrement(productId, quantity)) {
+                throw new RuntimeException("Unknown product or insufficient unreserved stock");
+            }
+        } catch (DataAccessException | LedgerNotOwnedException e) {
+            throw e; // Not applied: the relay delivers the batch again
+        } catch (RuntimeException e) {
+            // Unknown product, insufficient stock or a malformed payload: recorded so it is not retried forever
+            System.out.println("⚠️ Stock event " + event.getEventId() + " rejected: " + e.getMessage());
+            outcome = "REJECTED";
+            rejected.increment();
+        }
+        processedEventRepository.saveAndFlush(new ProcessedEvent(event.getEventId(), outcome, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.productservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Folds concurrent stock decrements for the same product into one write per window.
+ * <p>
+ * The first request for an idle product opens a window; everything arriving for that
+ * product within {@code window-ms} (or until {@code max-batch} requests) joins it. The
+ * window is then written with one {@link StockBatchWriter} call and every caller's future
+ * completes with its own accept/reject result.
+ */
+@Component
+public class StockWriteCoalescer {
+
+    @Autowired
+    private StockBatchWriter writer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${products.stock.coalescing.window-ms:5}")
+    private long windowMs;
+
+    @Value("${products.stock.coalescing.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${products.stock.coalescing.flush-threads:4}")
+    private int flushThreads;
+
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private Counter requests;
+    private Counter writes;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        flusher = Executors.newScheduledThreadPool(flushThreads,
+                r -> new Thread(r, "stock-coalescer-" + threadCount.incrementAndGet()));
+        requests = meterRegistry.counter("products.stock.coalescer.requests");
+        writes = meterRegistry.counter("products.stock.coalescer.writes");
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+    }
+
+    // ✅ Completes with true when the decrement was applied, false when stock was short
+    public CompletableFuture<Boolean> decrement(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        requests.increment();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        while (true) {
+            Window window = windows.computeIfAbsent(productId, this::open);
+            if (window.add(quantity, result)) {
+                return result;
+            }
+            // The window closed between lookup and add; the next lookup opens a fresh one
+        }
+    }
+
+    private Window open(Long productId) {
+        Window window = new Window(productId);
+        flusher.schedule(() -> flush(window), windowMs, TimeUnit.MILLISECONDS);
+        return window;
+    }
+
+    private void flush(Window window) {
+        if (!window.close()) {
+            return; // Already flushed because it filled up
+        }
+        windows.remove(window.productId, window);
+
+        try {
+            boolean[] accepted = writer.decrementInOrder(window.productId, window.quantities);
+            writes.increment();
+            for (int i = 0; i < window.callers.size(); i++) {
+                window.callers.get(i).complete(accepted[i]);
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Coalesced stock write failed for Product " + window.productId + ": " + e.getMessage());
+            window.callers.forEach(caller -> caller.completeExceptionally(e));
+        }
+    }
+
+    private final class Window {
+        final Long productId;
+        final List<Integer> quantities = new ArrayList<>();
+        final List<CompletableFuture<Boolean>> callers = new ArrayList<>();
+        boolean closed;
+
+        Window(Long productId) {
+            this.productId = productId;
+        }
+
+        synchronized boolean add(int quantity, CompletableFuture<Boolean> caller) {
+            if (closed) {
+                return false;
+            }
+            quantities.add(quantity);
+            callers.add(caller);
+            if (quantities.size() >= maxBatch) {
+                flusher.execute(() -> flush(this));
+            }
+            return true;
+        }
+
+        // Only the first caller wins; after this the lists are no longer mutated
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+}
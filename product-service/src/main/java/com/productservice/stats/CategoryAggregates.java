@@ -0,0 +1,130 @@
+package com.productservice.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.productservice.model.Product;
+
+/**
+ * Count, total stock and min/max price per category, maintained from individual
+ * product changes. Prices are kept as a multiset so the min and max stay exact
+ * when a product leaves a category. Each category carries a version that bumps on
+ * every change, letting a repair detect that it raced with a live update.
+ */
+public class CategoryAggregates {
+
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private final Map<Long, Entry> products = new HashMap<>();
+
+    public synchronized void put(Product product) {
+        Entry previous = products.remove(product.getId());
+        if (previous != null) {
+            bucket(previous.category).remove(previous);
+        }
+        Entry entry = new Entry(product.getCategory(), product.getPrice(), product.getStock());
+        products.put(product.getId(), entry);
+        bucket(entry.category).add(entry);
+    }
+
+    // False when the product is not known yet; the repair pass picks it up
+    public synchronized boolean adjustStock(Long productId, int delta) {
+        Entry entry = products.get(productId);
+        if (entry == null) {
+            return false;
+        }
+        entry.stock += delta;
+        Bucket bucket = bucket(entry.category);
+        bucket.totalStock += delta;
+        bucket.version++;
+        return true;
+    }
+
+    public synchronized List<CategoryStats> snapshot() {
+        List<CategoryStats> stats = new ArrayList<>(buckets.size());
+        buckets.forEach((category, bucket) -> stats.add(bucket.toStats(category)));
+        stats.sort(Comparator.comparing(CategoryStats::getCategory, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return stats;
+    }
+
+    public synchronized long version(String category) {
+        Bucket bucket = buckets.get(category);
+        return bucket != null ? bucket.version : 0;
+    }
+
+    /**
+     * Replaces everything known about one category with freshly loaded rows.
+     * Returns false without changing anything when the category moved on since
+     * {@code expectedVersion} was read.
+     */
+    public synchronized boolean replaceCategory(String category, List<Product> loaded, long expectedVersion) {
+        if (version(category) != expectedVersion) {
+            return false;
+        }
+        products.values().removeIf(entry -> Objects.equals(entry.category, category));
+        Bucket bucket = new Bucket();
+        bucket.version = expectedVersion + 1;
+        for (Product product : loaded) {
+            Entry entry = new Entry(category, product.getPrice(), product.getStock());
+            products.put(product.getId(), entry);
+            bucket.add(entry);
+        }
+        if (bucket.count == 0) {
+            buckets.remove(category);
+        } else {
+            buckets.put(category, bucket);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return products.size();
+    }
+
+    private Bucket bucket(String category) {
+        return buckets.computeIfAbsent(category, c -> new Bucket());
+    }
+
+    private static final class Entry {
+        private final String category;
+        private final double price;
+        private int stock;
+
+        private Entry(String category, double price, int stock) {
+            this.category = category;
+            this.price = price;
+            this.stock = stock;
+        }
+    }
+
+    private static final class Bucket {
+        private long count;
+        private long totalStock;
+        private long version;
+        private final TreeMap<Double, Integer> prices = new TreeMap<>();
+
+        private void add(Entry entry) {
+            count++;
+            totalStock += entry.stock;
+            version++;
+            prices.merge(entry.price, 1, Integer::sum);
+        }
+
+        private void remove(Entry entry) {
+            count--;
+            totalStock -= entry.stock;
+            version++;
+            prices.computeIfPresent(entry.price, (price, n) -> n > 1 ? n - 1 : null);
+        }
+
+        private CategoryStats toStats(String category) {
+            return new CategoryStats(category, count, totalStock,
+                    prices.isEmpty() ? null : prices.firstKey(),
+                    prices.isEmpty() ? null : prices.lastKey());
+        }
+    }
+}
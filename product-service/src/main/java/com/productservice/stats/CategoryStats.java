@@ -0,0 +1,17 @@
+package com.productservice.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ Per-category dashboard figures served by /products/categories/stats
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStats {
+    private String category;
+    private long productCount;
+    private long totalStock;
+    private Double minPrice;
+    private Double maxPrice;
+}
@@ -0,0 +1,134 @@
+package com.productservice.stats;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.productservice.event.ProductChangedEvent;
+import com.productservice.event.ProductsUpsertedEvent;
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+
+/**
+ * Serves per-category stats from {@link CategoryAggregates}. The aggregates are
+ * loaded once at startup and then only move with committed product changes;
+ * a periodic GROUP BY against the primary finds categories that drifted and
+ * reloads just those.
+ */
+@Service
+public class CategoryStatsService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${products.stats.load-page-size:1000}")
+    private int loadPageSize;
+
+    private final CategoryAggregates aggregates = new CategoryAggregates();
+
+    // Category -> aggregate version at which it last disagreed with the table
+    private Map<String, Long> suspects = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(loadPageSize));
+            page.forEach(aggregates::put);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == loadPageSize);
+        System.out.println("✅ Category stats loaded: " + aggregates.size() + " products in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Imported rows bypass ProductChangedEvent; put() replaces what was known about each product
+    @EventListener
+    public void onProductsUpserted(ProductsUpsertedEvent event) {
+        event.getProducts().forEach(aggregates::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            aggregates.put(event.getProduct());
+        } else {
+            aggregates.adjustStock(event.getProductId(), event.getStockDelta());
+        }
+    }
+
+    public List<CategoryStats> getStats() {
+        return aggregates.snapshot();
+    }
+
+    /**
+     * A mismatch can just be a commit whose listener has not run yet, so a
+     * category is only reloaded once it still disagrees on the next pass with no
+     * change applied in between.
+     */
+    @Scheduled(fixedDelayString = "${products.stats.repair-interval-ms:300000}",
+            initialDelayString = "${products.stats.repair-interval-ms:300000}")
+    public synchronized void repair() {
+        Map<String, CategoryStats> actual = new HashMap<>();
+        // Plain JDBC outside a read-only transaction, so this reads the primary even with replica routing on.
+        // Grouped byte for byte like the HashMap keys: the column's _ci collation would fold "Books" and "books"
+        // together. MIN(category) is exact since every row of a group has the same bytes.
+        jdbcTemplate.query("SELECT MIN(category), COUNT(*), SUM(stock), MIN(price), MAX(price) FROM products "
+                + "GROUP BY BINARY category",
+                rs -> {
+                    actual.put(rs.getString(1), new CategoryStats(rs.getString(1), rs.getLong(2), rs.getLong(3),
+                            rs.getDouble(4), rs.getDouble(5)));
+                });
+        Map<String, CategoryStats> known = new HashMap<>();
+        for (CategoryStats stats : aggregates.snapshot()) {
+            known.put(stats.getCategory(), stats);
+        }
+
+        Set<String> categories = new HashSet<>(actual.keySet());
+        categories.addAll(known.keySet());
+        Map<String, Long> drifted = new HashMap<>();
+        for (String category : categories) {
+            if (Objects.equals(actual.get(category), known.get(category))) {
+                continue;
+            }
+            long version = aggregates.version(category);
+            if (!Objects.equals(suspects.get(category), version)) {
+                drifted.put(category, version);
+            } else if (aggregates.replaceCategory(category, loadCategory(category), version)) {
+                System.out.println("⚠️ Category stats drifted for " + category + ": " + known.get(category)
+                        + " -> " + actual.get(category) + ", reloaded");
+            }
+        }
+        suspects = drifted;
+    }
+
+    private List<Product> loadCategory(String category) {
+        BeanPropertyRowMapper<Product> mapper = BeanPropertyRowMapper.newInstance(Product.class);
+        if (category == null) {
+            return jdbcTemplate.query("SELECT id, category, price, stock FROM products WHERE category IS NULL", mapper);
+        }
+        // The plain comparison can use the category index; the binary one drops other-case variants
+        return jdbcTemplate.query("SELECT id, category, price, stock FROM products WHERE category = ? "
+                + "AND BINARY category = BINARY ?", mapper, category, category);
+    }
+}
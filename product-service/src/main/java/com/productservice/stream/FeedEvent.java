@@ -0,0 +1,38 @@
+package com.productservice.stream;
+
+import com.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of the change feed. STOCK_CHANGED carries a delta so coalesced entries
+ * stay exact; CREATED carries the full product; RELOAD tells clients to refetch
+ * the catalog (bulk import, or resume point no longer buffered). HEARTBEAT is
+ * never stored; it is written to the client as an SSE comment.
+ */
+@Getter
+@AllArgsConstructor
+public class FeedEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String STOCK_CHANGED = "STOCK_CHANGED";
+    public static final String RELOAD = "RELOAD";
+    public static final String HEARTBEAT = "HEARTBEAT";
+
+    private final long id;
+    private final String type;
+    private final Long productId;
+    private final String category;
+    private final int stockDelta;
+    private final Product product;
+
+    // Later stock change for the same SKU folded into this one
+    FeedEvent mergedWith(FeedEvent newer) {
+        return new FeedEvent(newer.id, type, productId, category, stockDelta + newer.stockDelta, product);
+    }
+
+    boolean isCoalescable() {
+        return STOCK_CHANGED.equals(type);
+    }
+}
@@ -0,0 +1,126 @@
+package com.productservice.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Per-client queue with at most one pending stock entry per SKU. While a send is in
+ * progress new changes for the same SKU are folded into the pending entry, so a slow
+ * client receives fewer, larger deltas instead of an unbounded backlog. A client
+ * that stops reading blocks its send; {@link #dropIfStalled} closes it so it
+ * stops holding a sender thread.
+ */
+class FeedSubscriber {
+
+    interface Sink {
+        void send(FeedEvent event) throws IOException;
+    }
+
+    private final String category;
+    private final Sink sink;
+    private final Executor executor;
+    private final int maxPending;
+    private final Consumer<FeedSubscriber> onClose;
+
+    // Keyed by SKU for stock changes, by event id otherwise; re-inserted on merge so ids stay ascending
+    private final Map<Object, FeedEvent> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private volatile boolean closed;
+    private Thread sendingThread; // Set while a send is in progress
+    private long sendStartedNanos;
+
+    FeedSubscriber(String category, Sink sink, Executor executor, int maxPending, Consumer<FeedSubscriber> onClose) {
+        this.category = category;
+        this.sink = sink;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.onClose = onClose;
+    }
+
+    boolean accepts(FeedEvent event) {
+        return category == null || event.getCategory() == null || category.equalsIgnoreCase(event.getCategory());
+    }
+
+    void enqueue(FeedEvent event) {
+        if (closed || !accepts(event)) {
+            return;
+        }
+        synchronized (this) {
+            Object key = event.isCoalescable() ? event.getProductId()
+                    : FeedEvent.HEARTBEAT.equals(event.getType()) ? FeedEvent.HEARTBEAT : "event-" + event.getId();
+            FeedEvent earlier = pending.remove(key);
+            pending.put(key, earlier != null ? earlier.mergedWith(event) : event);
+
+            if (pending.size() > maxPending) {
+                // Too far behind even after coalescing: tell the client to refetch and start over
+                pending.clear();
+                pending.put("reload", new FeedEvent(event.getId(), FeedEvent.RELOAD, null, null, 0, null));
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        while (!closed) {
+            List<FeedEvent> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            for (Iterator<FeedEvent> it = batch.iterator(); it.hasNext() && !closed;) {
+                synchronized (this) {
+                    sendingThread = Thread.currentThread();
+                    sendStartedNanos = System.nanoTime();
+                }
+                try {
+                    sink.send(it.next());
+                } catch (IOException | RuntimeException e) {
+                    close();
+                } finally {
+                    synchronized (this) {
+                        sendingThread = null;
+                    }
+                    Thread.interrupted(); // An interrupt from dropIfStalled must not leak into the next drain
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the subscriber if one send has been blocked for longer than the timeout, and
+     * interrupts the sending thread. True if it was dropped.
+     */
+    synchronized boolean dropIfStalled(long timeoutNanos) {
+        if (sendingThread == null || System.nanoTime() - sendStartedNanos < timeoutNanos) {
+            return false;
+        }
+        close();
+        sendingThread.interrupt();
+        return true;
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,181 @@
+package com.productservice.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.productservice.cache.ProductCategoryLookup;
+import com.productservice.event.CatalogImportedEvent;
+import com.productservice.event.ProductChangedEvent;
+import com.productservice.model.Product;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Change feed behind /products/stream. Committed product changes get a sequence
+ * number and go into a bounded ring buffer, then fan out to SSE subscribers. A
+ * reconnecting client resumes after its Last-Event-ID as long as that id is still
+ * in the buffer; otherwise it gets a RELOAD event and should refetch the catalog.
+ * Every write, heartbeats included, goes through the subscriber's queue on the
+ * sender pool. A client whose send has been blocked for products.stream.send-timeout-ms
+ * is dropped, so stalled readers cannot pin the pool.
+ */
+@Component
+public class ProductChangeFeed {
+
+    @Value("${products.stream.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${products.stream.max-pending-per-client:1000}")
+    private int maxPendingPerClient;
+
+    @Value("${products.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${products.stream.send-threads:16}")
+    private int sendThreads;
+
+    @Value("${products.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    private ProductCategoryLookup categoryLookup;
+
+    private FeedEvent[] buffer;
+    private long lastId; // Guarded by this
+    private final List<FeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<FeedSubscriber, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor sender;
+
+    @PostConstruct
+    public void start() {
+        buffer = new FeedEvent[bufferSize];
+        // A subscriber has at most one drain queued, so the queue is bounded by the subscriber count
+        sender = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> new Thread(r, "product-stream"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        emitters.values().forEach(SseEmitter::complete);
+        sender.shutdown();
+    }
+
+    // ✅ New SSE subscriber, optionally filtered by category and resumed after lastEventId
+    public SseEmitter subscribe(String category, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        FeedSubscriber subscriber = new FeedSubscriber(category, event -> send(emitter, event), sender,
+                maxPendingPerClient, closed -> {
+                    subscribers.remove(closed);
+                    emitters.remove(closed);
+                });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        emitters.put(subscriber, emitter);
+
+        // Replay and registration happen under the same lock as publish, so nothing falls in between
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    public FeedEvent publish(String type, Long productId, String category, int stockDelta, Product product) {
+        FeedEvent event;
+        synchronized (this) {
+            event = new FeedEvent(++lastId, type, productId, category, stockDelta, product);
+            buffer[(int) (event.getId() % bufferSize)] = event;
+            for (FeedSubscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+            }
+        }
+        return event;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            Product product = event.getProduct();
+            categoryLookup.remember(product);
+            publish(FeedEvent.CREATED, product.getId(), product.getCategory(), product.getStock(), product);
+        } else {
+            publish(FeedEvent.STOCK_CHANGED, event.getProductId(), categoryLookup.resolve(event.getProductId()),
+                    event.getStockDelta(), null);
+        }
+    }
+
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        publish(FeedEvent.RELOAD, null, null, 0, null);
+    }
+
+    // ✅ Comment frames keep idle connections open through proxies and surface dead clients; queued like any
+    // other event so the scheduler thread never blocks on a client that stopped reading
+    @Scheduled(fixedDelayString = "${products.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        FeedEvent heartbeat = new FeedEvent(0, FeedEvent.HEARTBEAT, null, null, 0, null);
+        for (FeedSubscriber subscriber : emitters.keySet()) {
+            subscriber.enqueue(heartbeat);
+        }
+    }
+
+    // ✅ A blocked write only ends at the connector's socket timeout; drop the client well before that
+    @Scheduled(fixedDelayString = "${products.stream.stall-check-ms:1000}")
+    public void dropStalledClients() {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Map.Entry<FeedSubscriber, SseEmitter> entry : emitters.entrySet()) {
+            if (entry.getKey().dropIfStalled(timeoutNanos)) {
+                System.out.println("⚠️ Dropping stream client stalled for over " + sendTimeoutMs + " ms");
+                entry.getValue().completeWithError(new IOException("Client stopped reading"));
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Caller holds the lock
+    private void replay(FeedSubscriber subscriber, long afterId) {
+        long oldest = Math.max(1, lastId - bufferSize + 1);
+        if (afterId + 1 < oldest || afterId > lastId) {
+            subscriber.enqueue(new FeedEvent(lastId, FeedEvent.RELOAD, null, null, 0, null));
+            return;
+        }
+        List<FeedEvent> missed = new ArrayList<>();
+        for (long id = afterId + 1; id <= lastId; id++) {
+            missed.add(buffer[(int) (id % bufferSize)]);
+        }
+        missed.forEach(subscriber::enqueue);
+    }
+
+    private static void send(SseEmitter emitter, FeedEvent event) throws IOException {
+        if (FeedEvent.HEARTBEAT.equals(event.getType())) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType())
+                .data(event));
+    }
+}
@@ -0,0 +1,96 @@
+package com.productservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Embedded H2 databases stand in for the primary and two replicas. Each holds
+ * its own name in node(name) plus a lag(seconds) row the lag query reads.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicaA = database("replica-0");
+        replicaB = database("replica-1");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaA);
+        replicas.put("replica-1", replicaB);
+        routing = new ReplicaRoutingDataSource(primary, replicas, "SELECT seconds FROM lag", 5);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        writes = new TransactionTemplate(txManager);
+        reads = new TransactionTemplate(txManager);
+        reads.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverReplicasAndWritesStayOnPrimary() {
+        Set<String> readNodes = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            readNodes.add(reads.execute(tx -> node()));
+        }
+
+        assertEquals(Set.of("replica-0", "replica-1"), readNodes);
+        assertEquals("primary", writes.execute(tx -> node()));
+        assertEquals("primary", node()); // No transaction at all
+    }
+
+    @Test
+    void laggingReplicaLeavesRotationAndReadsFallBackToPrimary() {
+        new JdbcTemplate(replicaA).update("UPDATE lag SET seconds = 30");
+        routing.checkReplicas();
+        assertEquals("replica-1", reads.execute(tx -> node()));
+        assertEquals("replica-1", reads.execute(tx -> node()));
+
+        new JdbcTemplate(replicaB).execute("DROP TABLE lag"); // Lag unknown counts as unhealthy
+        routing.checkReplicas();
+        assertEquals("primary", reads.execute(tx -> node()));
+
+        new JdbcTemplate(replicaA).update("UPDATE lag SET seconds = 0");
+        routing.checkReplicas();
+        assertEquals("replica-0", reads.execute(tx -> node()));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + System.nanoTime()
+                + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE lag (seconds INT)");
+        jdbc.update("INSERT INTO lag VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package com.productservice.controller;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productservice.config.SecurityConfig;
+import com.productservice.reservation.StockReservationLedger;
+import com.productservice.search.ProductSearchService;
+import com.productservice.service.ProductImportService;
+import com.productservice.service.ProductService;
+import com.productservice.service.StockEventConsumer;
+import com.productservice.service.StockWriteCoalescer;
+import com.productservice.stats.CategoryStats;
+import com.productservice.stats.CategoryStatsService;
+import com.productservice.stream.ProductChangeFeed;
+
+@WebMvcTest(controllers = ProductController.class, properties = {
+        "spring.cloud.config.enabled=false",
+        "products.security.service-password=test-secret" })
+@Import(SecurityConfig.class)
+class ProductControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private StockEventConsumer stockEventConsumer;
+
+    @MockitoBean
+    private ProductSearchService productSearchService;
+
+    @MockitoBean
+    private ProductImportService productImportService;
+
+    @MockitoBean
+    private StockReservationLedger reservationLedger;
+
+    @MockitoBean
+    private StockWriteCoalescer stockWriteCoalescer;
+
+    @MockitoBean
+    private ProductChangeFeed productChangeFeed;
+
+    @MockitoBean
+    private CategoryStatsService categoryStatsService;
+
+    @Test
+    void categoryStatsArePublic() throws Exception {
+        when(categoryStatsService.getStats())
+                .thenReturn(List.of(new CategoryStats("books", 2, 15, 4.5, 12.0)));
+
+        mockMvc.perform(get("/products/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("books"))
+                .andExpect(jsonPath("$[0].totalStock").value(15));
+    }
+
+    @Test
+    void writesMatchingTheCategoryPatternNeedCredentials() throws Exception {
+        for (String path : List.of("/products/reserve", "/products/events", "/products/update-stock-batch")) {
+            mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    void serviceAccountCanWriteStock() throws Exception {
+        when(reservationLedger.decrementAll(anyMap())).thenReturn(List.of());
+
+        mockMvc.perform(post("/products/update-stock-batch")
+                        .with(httpBasic("order-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"quantity\":2}]"))
+                .andExpect(status().isOk());
+    }
+}
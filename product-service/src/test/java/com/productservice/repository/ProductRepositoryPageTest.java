@@ -0,0 +1,77 @@
+package com.productservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.productservice.model.Product;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+class ProductRepositoryPageTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void keysetPagesCoverEveryRowOnceWithTiesOnSortValue() {
+        double[] prices = { 5, 3, 5, 1, 5, 3, 2 };
+        for (int i = 0; i < prices.length; i++) {
+            productRepository.save(new Product(null, "p" + i, "c", prices[i], i, null));
+        }
+
+        List<Object> seen = new ArrayList<>();
+        Object afterValue = null;
+        Long afterId = null;
+        List<Map<String, Object>> page;
+        do {
+            page = productRepository.findPage(Set.of("name"), null, "price", true, afterValue, afterId, 3);
+            for (Map<String, Object> row : page) {
+                assertEquals(Set.of("id", "price", "name"), row.keySet());
+                seen.add(row.get("price"));
+            }
+            if (!page.isEmpty()) {
+                afterValue = page.get(page.size() - 1).get("price");
+                afterId = (Long) page.get(page.size() - 1).get("id");
+            }
+        } while (page.size() == 3);
+
+        assertEquals(List.of(5.0, 5.0, 5.0, 3.0, 3.0, 2.0, 1.0), seen);
+    }
+
+    @Test
+    void keysetPagesKeepRowsWithNullSortValue() {
+        String[] names = { "b", null, "a", null, "b", null, "c" };
+        for (int i = 0; i < names.length; i++) {
+            productRepository.save(new Product(null, names[i], "c", i, i, null));
+        }
+
+        assertEquals(Arrays.asList(null, null, null, "a", "b", "b", "c"), pageThroughNames(false));
+        assertEquals(Arrays.asList("c", "b", "b", "a", null, null, null), pageThroughNames(true));
+    }
+
+    private List<Object> pageThroughNames(boolean descending) {
+        List<Object> seen = new ArrayList<>();
+        Object afterValue = null;
+        Long afterId = null;
+        List<Map<String, Object>> page;
+        do {
+            page = productRepository.findPage(Set.of(), "c", "name", descending, afterValue, afterId, 2);
+            for (Map<String, Object> row : page) {
+                seen.add(row.get("name"));
+            }
+            if (!page.isEmpty()) {
+                afterValue = page.get(page.size() - 1).get("name");
+                afterId = (Long) page.get(page.size() - 1).get("id");
+            }
+        } while (page.size() == 2);
+        return seen;
+    }
+}
@@ -0,0 +1,184 @@
+package com.productservice.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.cache.CatalogCache;
+import com.productservice.cache.ProductCategoryLookup;
+import com.productservice.config.CacheConfig;
+import com.productservice.model.LedgerLease;
+import com.productservice.model.Product;
+import com.productservice.repository.LedgerLeaseRepository;
+import com.productservice.repository.ProductRepository;
+import com.productservice.reservation.StockReservationLedger.HoldStatus;
+import com.productservice.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ StockReservationLedger.class, ProductService.class, CatalogCache.class, ProductCategoryLookup.class,
+        CacheConfig.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Write-behind commits on its own
+class StockReservationLedgerTest {
+
+    @Autowired
+    private StockReservationLedger ledger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LedgerLeaseRepository leaseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentReservationsNeverOversellAndCommitsAreWrittenBehind() throws Exception {
+        Long productId = productRepository.save(new Product(null, "Last units", "flash", 5.0, 10, null)).getId();
+
+        int threads = 32;
+        ConcurrentLinkedQueue<String> granted = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    ReservationResult result = ledger.reserve(Map.of(productId, 1), null);
+                    if (result.isReserved()) {
+                        granted.add(result.getReservationId());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10, granted.size());
+        List<String> holds = List.copyOf(granted);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(HoldStatus.COMMITTED, ledger.commit(holds.get(i)));
+        }
+        assertEquals(HoldStatus.COMMITTED, ledger.commit(holds.get(0))); // Idempotent
+        for (int i = 6; i < 10; i++) {
+            assertEquals(HoldStatus.RELEASED, ledger.release(holds.get(i)));
+        }
+
+        assertEquals(10, productRepository.findById(productId).get().getStock()); // Not flushed yet
+        ledger.flush();
+        assertEquals(4, productRepository.findById(productId).get().getStock());
+        assertEquals(4, ledger.available(productId).get());
+    }
+
+    @Test
+    void expiredHoldsReturnToStockAndCannotBeCommitted() throws Exception {
+        Long productId = productRepository.save(new Product(null, "Timed", "flash", 5.0, 1, null)).getId();
+
+        ReservationResult hold = ledger.reserve(Map.of(productId, 1), 1L);
+        assertTrue(hold.isReserved());
+        assertFalse(ledger.reserve(Map.of(productId, 1), null).isReserved());
+
+        Thread.sleep(1100);
+        ledger.sweep();
+
+        assertEquals(HoldStatus.EXPIRED, ledger.commit(hold.getReservationId()));
+        assertTrue(ledger.reserve(Map.of(productId, 1), null).isReserved());
+    }
+
+    @Test
+    void directDecrementsNeverTakeHeldStock() {
+        Long productId = productRepository.save(new Product(null, "Console", "flash", 400.0, 5, null)).getId();
+        Long other = productRepository.save(new Product(null, "Pad", "flash", 40.0, 2, null)).getId();
+        ReservationResult hold = ledger.reserve(Map.of(productId, 3), null);
+
+        assertFalse(ledger.decrement(productId, 3));
+        assertEquals(List.of(productId), ledger.decrementAll(Map.of(productId, 3, other, 1)));
+        boolean[] window = ledger.decrementInOrder(productId, List.of(3, 1, 2));
+        assertFalse(window[0]);
+        assertTrue(window[1]);
+        assertFalse(window[2]);
+        assertTrue(ledger.decrement(productId, 1));
+        assertEquals(2, productRepository.findById(other).get().getStock());
+
+        // The paid order still gets its stock
+        assertEquals(HoldStatus.COMMITTED, ledger.commit(hold.getReservationId()));
+        ledger.flush();
+        assertEquals(0, productRepository.findById(productId).get().getStock());
+        assertEquals(0, ledger.available(productId).get());
+    }
+
+    @Test
+    void multiSkuReservationIsAllOrNothing() {
+        Long plenty = productRepository.save(new Product(null, "Rice", "grocery", 2.5, 10, null)).getId();
+        Long scarce = productRepository.save(new Product(null, "Saffron", "grocery", 30.0, 1, null)).getId();
+
+        ReservationResult result = ledger.reserve(Map.of(plenty, 3, scarce, 2), null);
+
+        assertFalse(result.isReserved());
+        assertEquals(List.of(scarce), result.getFailedProductIds());
+        assertEquals(10, ledger.available(plenty).get());
+    }
+
+    @Test
+    void refusedWriteBehindStaysPendingAndVisible() {
+        Product product = productRepository.save(new Product(null, "Kettle", "home", 25.0, 5, null));
+        ReservationResult hold = ledger.reserve(Map.of(product.getId(), 3), null);
+        assertEquals(HoldStatus.COMMITTED, ledger.commit(hold.getReservationId()));
+
+        product.setStock(1); // Lowered outside the ledger after the sale
+        productRepository.save(product);
+        ledger.flush();
+
+        assertEquals(1, productRepository.findById(product.getId()).get().getStock());
+        assertEquals(3.0, meterRegistry.get("products.reservations.unapplied.units").gauge().value());
+        assertFalse(ledger.reserve(Map.of(product.getId(), 1), null).isReserved()); // Sold units are still owed
+
+        product.setStock(10);
+        productRepository.save(product);
+        ledger.flush();
+
+        assertEquals(7, productRepository.findById(product.getId()).get().getStock());
+        assertEquals(0.0, meterRegistry.get("products.reservations.unapplied.units").gauge().value());
+    }
+
+    @Test
+    void ledgerRefusesCallsWhileAnotherInstanceHoldsTheLease() {
+        Long productId = productRepository.save(new Product(null, "Mug", "home", 8.0, 4, null)).getId();
+        leaseRepository.save(new LedgerLease("stock-ledger", "other-instance", LocalDateTime.now().plusMinutes(1)));
+        try {
+            ledger.renewLease();
+            assertThrows(LedgerNotOwnedException.class, () -> ledger.reserve(Map.of(productId, 1), null));
+            assertThrows(LedgerNotOwnedException.class, () -> ledger.decrement(productId, 1));
+        } finally {
+            leaseRepository.save(new LedgerLease("stock-ledger", "other-instance", LocalDateTime.now().minusSeconds(1)));
+            ledger.renewLease();
+        }
+        assertTrue(ledger.reserve(Map.of(productId, 1), null).isReserved());
+    }
+}
@@ -0,0 +1,86 @@
+package com.productservice.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.productservice.model.Product;
+
+/**
+ * First page (20 hits) of /products/search over 1M products in 100 categories:
+ * <ul>
+ * <li>{@code browseAll} - no query, no filter: maintained counts plus a top-k over the IDs</li>
+ * <li>{@code browseCategory} - category filter only: walks that category's postings</li>
+ * <li>{@code browseInStock} - no query but a per-document filter: full scan, still top-k</li>
+ * <li>{@code textQuery} - prefix query, for comparison</li>
+ * <li>{@code skuLookup} - exact SKU</li>
+ * </ul>
+ * Setup prints the heap the built index retains. Run with
+ * {@code mvn -P benchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProductSearchIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int CATEGORIES = 100;
+    private static final String[] WORDS = { "wireless", "keyboard", "mouse", "desk", "lamp", "chair", "cable",
+            "monitor", "speaker", "stand" };
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductSearchIndex();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            index.index(new Product(id, name, "category-" + random.nextInt(CATEGORIES), random.nextInt(1000),
+                    random.nextInt(20), "SKU-" + id));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.println("ℹ️ Index of " + index.size() + " products retains about "
+                + (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB of heap");
+    }
+
+    @Benchmark
+    public SearchResult browseAll() {
+        return index.search(null, null, null, null, false, 20);
+    }
+
+    @Benchmark
+    public SearchResult browseCategory() {
+        return index.search(null, "category-7", null, null, false, 20);
+    }
+
+    @Benchmark
+    public SearchResult browseInStock() {
+        return index.search(null, "category-7", null, null, true, 20);
+    }
+
+    @Benchmark
+    public SearchResult textQuery() {
+        return index.search("wireless key", null, null, null, false, 20);
+    }
+
+    @Benchmark
+    public SearchResult skuLookup() {
+        return index.search("sku-512345", null, null, null, false, 20);
+    }
+}
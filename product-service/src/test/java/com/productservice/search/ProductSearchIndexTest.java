@@ -0,0 +1,106 @@
+package com.productservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productservice.model.Product;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(new Product(1L, "Wireless Keyboard", "Electronics", 49.99, 10, null));
+        index.index(new Product(2L, "Wireless Mouse", "Electronics", 19.99, 0, null));
+        index.index(new Product(3L, "Mechanical Keyboard", "Electronics", 129.00, 5, null));
+        index.index(new Product(4L, "Keyboard Cleaning Kit", "Accessories", 7.50, 30, null));
+    }
+
+    @Test
+    void lastWordMatchesAsPrefix() {
+        assertEquals(List.of(1L, 2L), ids(index.search("wire", null, null, null, false, 10)));
+        assertEquals(List.of(1L), ids(index.search("wireless key", null, null, null, false, 10)));
+    }
+
+    @Test
+    void toleratesOneTypo() {
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("keybaord", null, null, null, false, 10)));
+        assertEquals(List.of(3L), ids(index.search("mechanicl", null, null, null, false, 10)));
+        assertEquals(List.of(2L), ids(index.search("mousse", null, null, null, false, 10)));
+    }
+
+    @Test
+    void filtersAndFacets() {
+        SearchResult result = index.search("keyboard", "electronics", null, 100.0, false, 10);
+        assertEquals(List.of(1L), ids(result));
+        assertEquals(1, result.getCategoryFacets().get("Electronics"));
+        assertEquals(1, result.getCategoryFacets().get("Accessories"));
+        assertEquals(1, result.getPriceFacets().get("10-50"));
+        assertEquals(1, result.getPriceFacets().get("100-500"));
+    }
+
+    @Test
+    void stockChangesAndReindexAreVisible() {
+        assertTrue(ids(index.search("mouse", null, null, null, true, 10)).isEmpty());
+        index.adjustStock(2L, 3);
+        assertEquals(List.of(2L), ids(index.search("mouse", null, null, null, true, 10)));
+
+        index.index(new Product(2L, "Trackball", "Electronics", 19.99, 3, null));
+        assertTrue(ids(index.search("mouse", null, null, null, false, 10)).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("track", null, null, null, false, 10)));
+    }
+
+    @Test
+    void browsingUsesCategoryPostingsAndKeepsFacetsExact() {
+        SearchResult page = index.search("", "electronics", null, null, false, 2);
+        assertEquals(List.of(1L, 2L), ids(page));
+        assertEquals(3, page.getTotal());
+        assertEquals(3, page.getCategoryFacets().get("Electronics"));
+        assertEquals(1, page.getCategoryFacets().get("Accessories"));
+        assertEquals(2, page.getPriceFacets().get("10-50"));
+        assertEquals(0, page.getPriceFacets().get("0-10"));
+
+        // Re-indexing into another category and price bucket moves the counts with it
+        index.index(new Product(3L, "Mechanical Keyboard", "Accessories", 5.00, 5, null));
+        SearchResult all = index.search(null, null, null, null, false, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(all));
+        assertEquals(2, all.getCategoryFacets().get("Electronics"));
+        assertEquals(2, all.getPriceFacets().get("0-10"));
+        assertEquals(List.of(3L), ids(index.search("", "accessories", null, null, true, 1)));
+    }
+
+    @Test
+    void skuMatchesOnlyWhole() {
+        index.index(new Product(5L, "Desk Lamp", "Lighting", 39.00, 3, "LMP-2041"));
+        index.index(new Product(6L, "Floor Lamp", "Lighting", 89.00, 2, "LMP-2042"));
+
+        assertEquals(List.of(5L), ids(index.search("lmp-2041", null, null, null, false, 10)));
+        assertEquals(List.of(5L), ids(index.search(" LMP-2041 ", null, null, null, false, 10)));
+        assertTrue(ids(index.search("2041", null, null, null, false, 10)).isEmpty());
+        assertTrue(ids(index.search("LMP-2043", null, null, null, false, 10)).isEmpty()); // No fuzzy match on codes
+
+        index.index(new Product(5L, "Desk Lamp", "Lighting", 39.00, 3, "LMP-3000"));
+        assertTrue(ids(index.search("LMP-2041", null, null, null, false, 10)).isEmpty());
+        assertEquals(List.of(5L), ids(index.search("LMP-3000", null, null, null, false, 10)));
+    }
+
+    @Test
+    void termsWithDigitsMatchExactlyOrByPrefix() {
+        index.index(new Product(5L, "Monitor 2740", "Electronics", 299.00, 3, null));
+
+        assertEquals(List.of(5L), ids(index.search("monitor 27", null, null, null, false, 10)));
+        assertTrue(ids(index.search("2741", null, null, null, false, 10)).isEmpty());
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.getItems().stream().map(Product::getId).collect(Collectors.toList());
+    }
+}
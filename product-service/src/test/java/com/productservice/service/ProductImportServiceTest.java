@@ -0,0 +1,119 @@
+package com.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+import com.productservice.stats.CategoryStats;
+import com.productservice.stats.CategoryStatsService;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "products.import.batch-size=2",
+        "products.import.progress-every-batches=1" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ ProductImportService.class, CategoryStatsService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Batches commit on their own
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @BeforeEach
+    void clean() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void csvRowsAreUpsertedBySkuAndBadRowsReported() throws Exception {
+        String csv = "sku,name,category,price,stock\n"
+                + "A-1,\"Desk, oak\",furniture,120.0,4\n"
+                + "A-2,Chair,furniture,45.5,10\n"
+                + "A-3,,furniture,1.0,1\n"
+                + "A-4,Lamp,lighting,abc,2\n"
+                + "A-1,\"Desk, walnut\",furniture,150.0,2\n";
+        List<Map<String, Object>> progress = new ArrayList<>();
+
+        Map<String, Object> summary = productImportService.importProducts(
+                new BufferedReader(new StringReader(csv)), ProductImportService.CSV, progress::add);
+
+        assertEquals(5L, summary.get("processed"));
+        assertEquals(3L, summary.get("written"));
+        assertEquals(2L, summary.get("rejected"));
+        assertEquals(1, progress.size());
+        assertEquals(2, productRepository.count());
+        Product desk = productRepository.findAll().stream().filter(p -> "A-1".equals(p.getSku())).findFirst().get();
+        assertEquals("Desk, walnut", desk.getName());
+        assertEquals(2, desk.getStock());
+    }
+
+    @Test
+    void rowRefusedByDatabaseIsRejectedWithoutLosingItsBatch() throws Exception {
+        String csv = "sku,name,category,price,stock\n"
+                + "B-1,Shelf,furniture,30.0,3\n"
+                + "B-2," + "x".repeat(300) + ",furniture,1.0,1\n" // Longer than the name column
+                + "B-3,Stool,furniture,20.0,5\n";
+
+        Map<String, Object> summary = productImportService.importProducts(
+                new BufferedReader(new StringReader(csv)), ProductImportService.CSV, p -> { });
+
+        assertEquals(2L, summary.get("written"));
+        assertEquals(1L, summary.get("rejected"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rejects = (List<Map<String, Object>>) summary.get("rejects");
+        assertEquals(3L, rejects.get(0).get("line"));
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void ndjsonRowsAreImported() throws Exception {
+        String ndjson = "{\"sku\":\"N-1\",\"name\":\"Pen\",\"category\":\"office\",\"price\":1.5,\"stock\":100}\n"
+                + "not json\n";
+
+        Map<String, Object> summary = productImportService.importProducts(
+                new BufferedReader(new StringReader(ndjson)), ProductImportService.NDJSON, p -> { });
+
+        assertEquals(1L, summary.get("written"));
+        assertEquals(1L, summary.get("rejected"));
+    }
+
+    @Test
+    void importedBatchesReachCategoryStatsWithoutRescan() throws Exception {
+        String csv = "sku,name,category,price,stock\n"
+                + "G-1,Rake,garden,12.0,4\n"
+                + "G-2,Hose,garden,25.0,6\n"
+                + "G-3,Spade,garden,18.0,1\n"
+                + "G-1,Rake,garden,14.0,3\n"; // Re-import in a later batch replaces the first row
+
+        productImportService.importProducts(new BufferedReader(new StringReader(csv)), ProductImportService.CSV, p -> { });
+
+        CategoryStats garden = categoryStatsService.getStats().stream()
+                .filter(stats -> "garden".equals(stats.getCategory())).findFirst().get();
+        assertEquals(new CategoryStats("garden", 3, 10, 14.0, 25.0), garden);
+    }
+}
@@ -0,0 +1,103 @@
+package com.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.cache.CatalogCache;
+import com.productservice.cache.ProductCategoryLookup;
+import com.productservice.config.CacheConfig;
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ ProductService.class, CatalogCache.class, ProductCategoryLookup.class, CacheConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each decrement must commit on its own
+class ProductStockConcurrencyTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        Product product = productRepository.save(new Product(null, "Hot SKU", "flash", 9.99, 100, null));
+
+        int threads = 64;
+        int attemptsPerThread = 10;
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (productService.tryDecrementStock(product.getId(), 1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100, sold.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void multiSkuDecrementIsAllOrNothing() {
+        Product plenty = productRepository.save(new Product(null, "Rice", "grocery", 2.5, 10, null));
+        Product scarce = productRepository.save(new Product(null, "Saffron", "grocery", 30.0, 1, null));
+
+        List<Long> failed = productService.decrementStocks(Map.of(plenty.getId(), 3, scarce.getId(), 2));
+
+        assertEquals(List.of(scarce.getId()), failed);
+        assertEquals(10, productRepository.findById(plenty.getId()).orElseThrow().getStock());
+        assertEquals(1, productRepository.findById(scarce.getId()).orElseThrow().getStock());
+
+        assertTrue(productService.decrementStocks(Map.of(plenty.getId(), 3, scarce.getId(), 1)).isEmpty());
+        assertEquals(7, productRepository.findById(plenty.getId()).orElseThrow().getStock());
+        assertFalse(productService.tryDecrementStock(scarce.getId(), 1));
+    }
+
+    @Test
+    void coalescedWindowAcceptsInArrivalOrderWhileStockLasts() {
+        Product product = productRepository.save(new Product(null, "Promo", "flash", 1.0, 5, null));
+
+        boolean[] accepted = productService.decrementInOrder(product.getId(), List.of(2, 4, 1, 2, 1));
+
+        assertTrue(accepted[0]);
+        assertFalse(accepted[1]);
+        assertTrue(accepted[2]);
+        assertTrue(accepted[3]);
+        assertFalse(accepted[4]);
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
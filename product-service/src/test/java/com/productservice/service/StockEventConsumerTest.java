@@ -0,0 +1,67 @@
+package com.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.cache.CatalogCache;
+import com.productservice.cache.ProductCategoryLookup;
+import com.productservice.config.CacheConfig;
+import com.productservice.model.Product;
+import com.productservice.model.StockEvent;
+import com.productservice.repository.ProcessedEventRepository;
+import com.productservice.repository.ProductRepository;
+import com.productservice.reservation.StockReservationLedger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ StockEventConsumer.class, StockReservationLedger.class, ProductService.class, CatalogCache.class,
+        ProductCategoryLookup.class, CacheConfig.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // accept() must commit before it returns
+class StockEventConsumerTest {
+
+    @Autowired
+    private StockEventConsumer stockEventConsumer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void batchIsCommittedBeforeAcceptReturnsAndRedeliveryIsIgnored() {
+        Product product = productRepository.save(new Product(null, "Lamp", "home", 20.0, 10, null));
+        List<StockEvent> batch = List.of(
+                decrement(9001L, product.getId(), 3),
+                decrement(9002L, product.getId(), 50)); // More than is left: recorded as rejected
+
+        stockEventConsumer.accept(batch);
+        stockEventConsumer.accept(batch); // Relay retry after a lost acknowledgement
+
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals("APPLIED", processedEventRepository.findById(9001L).orElseThrow().getOutcome());
+        assertEquals("REJECTED", processedEventRepository.findById(9002L).orElseThrow().getOutcome());
+        assertEquals(1.0, meterRegistry.counter("products.stock.events.rejected").count());
+    }
+
+    private static StockEvent decrement(Long eventId, Long productId, int quantity) {
+        return new StockEvent(eventId, "STOCK_DECREMENT", 1L, Map.of("productId", productId, "quantity", quantity));
+    }
+}
@@ -0,0 +1,87 @@
+package com.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.productservice.cache.CatalogCache;
+import com.productservice.cache.ProductCategoryLookup;
+import com.productservice.config.CacheConfig;
+import com.productservice.model.Product;
+import com.productservice.repository.ProductRepository;
+import com.productservice.reservation.StockReservationLedger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Same flash-sale shape as {@link StockWriteCoalescerTest}, but through the real
+ * writer chain: the reservation ledger and ProductService.decrementInOrder on H2.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ StockWriteCoalescer.class, StockReservationLedger.class, ProductService.class, CatalogCache.class,
+        ProductCategoryLookup.class, CacheConfig.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every window commits on its own
+class StockWriteCoalescerDatabaseTest {
+
+    @Autowired
+    private StockWriteCoalescer coalescer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void hotSkuDecrementsShareDatabaseWrites() throws Exception {
+        Long productId = productRepository.save(new Product(null, "Flash deal", "flash", 9.0, 2_000, null)).getId();
+
+        int threads = 32;
+        int callsPerThread = 100;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        CompletableFuture<Boolean> result = coalescer.decrement(productId, 1);
+                        if (result.get(10, TimeUnit.SECONDS)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        int requests = threads * callsPerThread;
+        double writes = meterRegistry.counter("products.stock.coalescer.writes").count();
+        assertEquals(requests, meterRegistry.counter("products.stock.coalescer.requests").count());
+        assertEquals(2_000, accepted.get());
+        assertEquals(0, productRepository.findById(productId).get().getStock());
+        assertTrue(writes * 5 < requests, "expected at least 5x fewer writes than requests, got " + writes);
+    }
+}
@@ -0,0 +1,106 @@
+package com.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Flash-sale load on one SKU against a fake writer that counts writes and
+ * simulates a 2 ms row update.
+ */
+class StockWriteCoalescerTest {
+
+    private final CountingWriter writer = new CountingWriter(20_000);
+    private StockWriteCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.stop();
+    }
+
+    @Test
+    void hotSkuDecrementsShareWritesAndNeverOversell() throws Exception {
+        coalescer = new StockWriteCoalescer();
+        ReflectionTestUtils.setField(coalescer, "writer", writer);
+        ReflectionTestUtils.setField(coalescer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coalescer, "windowMs", 5L);
+        ReflectionTestUtils.setField(coalescer, "maxBatch", 500);
+        ReflectionTestUtils.setField(coalescer, "flushThreads", 4);
+        coalescer.start();
+
+        int threads = 64;
+        int callsPerThread = 500;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        CompletableFuture<Boolean> result = coalescer.decrement(1L, 1);
+                        if (result.get(5, TimeUnit.SECONDS)) {
+                            accepted.incrementAndGet();
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        int requests = threads * callsPerThread;
+
+        assertEquals(20_000, accepted.get());
+        assertEquals(requests - 20_000, rejected.get());
+        assertEquals(0, writer.stock);
+        assertTrue(writer.writes.get() * 20 < requests, "expected at least 20x fewer writes than requests");
+    }
+
+    private static final class CountingWriter implements StockBatchWriter {
+        final AtomicInteger writes = new AtomicInteger();
+        int stock;
+
+        CountingWriter(int stock) {
+            this.stock = stock;
+        }
+
+        @Override
+        public synchronized boolean[] decrementInOrder(Long productId, List<Integer> quantities) {
+            writes.incrementAndGet();
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean[] accepted = new boolean[quantities.size()];
+            for (int i = 0; i < quantities.size(); i++) {
+                if (quantities.get(i) <= stock) {
+                    stock -= quantities.get(i);
+                    accepted[i] = true;
+                }
+            }
+            return accepted;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.productservice.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productservice.model.Product;
+
+class CategoryAggregatesTest {
+
+    private CategoryAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new CategoryAggregates();
+        aggregates.put(new Product(1L, "Keyboard", "Electronics", 49.99, 10, null));
+        aggregates.put(new Product(2L, "Mouse", "Electronics", 19.99, 4, null));
+        aggregates.put(new Product(3L, "Monitor", "Electronics", 199.00, 2, null));
+        aggregates.put(new Product(4L, "Cleaning Kit", "Accessories", 7.50, 30, null));
+    }
+
+    @Test
+    void tracksCountStockAndPriceRange() {
+        aggregates.adjustStock(1L, -3);
+        assertFalse(aggregates.adjustStock(99L, -1));
+
+        assertEquals(List.of(
+                new CategoryStats("Accessories", 1, 30, 7.50, 7.50),
+                new CategoryStats("Electronics", 3, 13, 19.99, 199.00)), aggregates.snapshot());
+    }
+
+    @Test
+    void reputUpdatesPriceRangeAndStock() {
+        // An import upsert of an existing product replaces its previous contribution
+        aggregates.put(new Product(3L, "Monitor", "Electronics", 149.00, 7, null));
+        aggregates.put(new Product(5L, "Monitor", "Electronics", 149.00, 1, null));
+        aggregates.put(new Product(5L, "Monitor", "Electronics", 89.00, 1, null));
+
+        assertEquals(new CategoryStats("Electronics", 4, 22, 19.99, 149.00), aggregates.snapshot().get(1));
+    }
+
+    @Test
+    void replaceCategoryRefusesWhenChangedSinceRead() {
+        long version = aggregates.version("Electronics");
+        aggregates.adjustStock(2L, -1);
+        assertFalse(aggregates.replaceCategory("Electronics", List.of(), version));
+
+        version = aggregates.version("Electronics");
+        assertTrue(aggregates.replaceCategory("Electronics",
+                List.of(new Product(1L, null, "Electronics", 49.99, 8, null)), version));
+        assertEquals(List.of(
+                new CategoryStats("Accessories", 1, 30, 7.50, 7.50),
+                new CategoryStats("Electronics", 1, 8, 49.99, 49.99)), aggregates.snapshot());
+        assertTrue(aggregates.adjustStock(1L, -1));
+        assertFalse(aggregates.adjustStock(2L, -1));
+    }
+}
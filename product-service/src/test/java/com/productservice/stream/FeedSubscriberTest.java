@@ -0,0 +1,107 @@
+package com.productservice.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FeedSubscriberTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<FeedEvent> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseClient = new CountDownLatch(1);
+    private long nextId;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowClientGetsOneCoalescedDeltaPerSkuInIdOrder() throws Exception {
+        FeedSubscriber subscriber = new FeedSubscriber("toys", this::slowSend, executor, 100, s -> { });
+
+        subscriber.enqueue(stock(1L, "toys", -1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS)); // Client now stuck on the first event
+        for (int i = 0; i < 100; i++) {
+            subscriber.enqueue(stock(1L, "toys", -1));
+            subscriber.enqueue(stock(2L, "toys", -2));
+            subscriber.enqueue(stock(3L, "books", -1)); // Filtered out
+        }
+        releaseClient.countDown();
+        awaitReceived(3);
+
+        assertEquals(-1, received.get(0).getStockDelta());
+        assertEquals(-100, received.get(1).getStockDelta());
+        assertEquals(1L, received.get(1).getProductId());
+        assertEquals(-200, received.get(2).getStockDelta());
+        assertTrue(received.get(1).getId() < received.get(2).getId());
+    }
+
+    @Test
+    void clientTooFarBehindIsToldToReload() throws Exception {
+        FeedSubscriber subscriber = new FeedSubscriber(null, this::slowSend, executor, 10, s -> { });
+
+        subscriber.enqueue(stock(0L, "toys", -1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (long sku = 1; sku <= 11; sku++) {
+            subscriber.enqueue(stock(sku, "toys", -1));
+        }
+        releaseClient.countDown();
+        awaitReceived(2);
+
+        assertEquals(FeedEvent.RELOAD, received.get(1).getType());
+    }
+
+    @Test
+    void stalledClientIsDroppedAndFreesItsSenderThread() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        FeedSubscriber stalled = new FeedSubscriber(null, this::slowSend, executor, 10, s -> closed.countDown());
+
+        stalled.enqueue(stock(1L, "toys", -1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS)); // Blocked until interrupted, never released
+        assertFalse(stalled.dropIfStalled(TimeUnit.SECONDS.toNanos(60)));
+        assertTrue(stalled.dropIfStalled(0));
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        assertTrue(stalled.isClosed());
+        // The single sender thread is free again and serves another client
+        FeedSubscriber next = new FeedSubscriber(null, received::add, executor, 10, s -> { });
+        next.enqueue(stock(2L, "toys", -1));
+        awaitReceived(2);
+        assertEquals(2L, received.get(1).getProductId());
+    }
+
+    private void slowSend(FeedEvent event) {
+        received.add(event);
+        firstSendStarted.countDown();
+        try {
+            releaseClient.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50); // Nothing more should arrive
+        assertEquals(count, received.size());
+    }
+
+    private FeedEvent stock(Long productId, String category, int delta) {
+        return new FeedEvent(++nextId, FeedEvent.STOCK_CHANGED, productId, category, delta, null);
+    }
+}
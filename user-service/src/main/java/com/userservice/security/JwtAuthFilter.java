@@ -2,6 +2,8 @@ package com.userservice.security;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
@@ -9,9 +11,13 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+import com.commonsecurity.RevocationList;
+import com.commonsecurity.TokenRevokedException;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,28 +26,46 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     
-    private static final String SECRET_KEY = "mysecretmysecretmysecretmysecret"; // Same as AUTH-SERVICE
+    @Autowired
+    private CachedJwtVerifier jwtVerifier; // Same secret as AUTH-SERVICE
+
+    @Autowired
+    private IdentityHeaders identityHeaders;
+
+    @Autowired
+    private RevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
-        String authHeader = request.getHeader("Authorization");
+        // ✅ Fast path: identity signed by API-GATEWAY after it verified the token
+        String signature = request.getHeader(IdentityHeaders.SIGNATURE);
+        String email = request.getHeader(IdentityHeaders.EMAIL);
+        String tokenId = request.getHeader(IdentityHeaders.TOKEN_ID);
+        if (signature == null || !identityHeaders.verify(email, request.getHeader(IdentityHeaders.ROLE), tokenId,
+                request.getHeader(IdentityHeaders.EXPIRES), signature) || revocationList.isRevoked(tokenId)) {
+            String authHeader = request.getHeader("Authorization");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        String token = authHeader.substring(7);
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-        String email = claims.getSubject();
-        String role = claims.get("role", String.class);
+            String token = authHeader.substring(7);
+            Claims claims;
+            try {
+                claims = jwtVerifier.verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                // ✅ Revoked, expired or forged: answer 401 rather than letting the exception become a 500
+                SecurityContextHolder.clearContext();
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e instanceof TokenRevokedException
+                        ? "Token has been revoked" : "Invalid or expired token");
+                return;
+            }
+            email = claims.getSubject();
+        }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             User user = new User(email, "", java.util.Collections.emptyList()); // Spring Security User
@@ -0,0 +1,47 @@
+package com.userservice.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.commonsecurity.CachedJwtVerifier;
+import com.commonsecurity.IdentityHeaders;
+import com.commonsecurity.JwtVerifier;
+import com.commonsecurity.RevocationList;
+
+// ✅ One parser and claims cache for the whole service (kept apart from SecurityConfig, which depends on the filter)
+@Configuration
+public class JwtVerifierConfig {
+
+    @Bean
+    public CachedJwtVerifier jwtVerifier(@Value("${jwt.secret:mysecretmysecretmysecretmysecret}") String secret,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds, RevocationList revocationList) {
+        return new CachedJwtVerifier(new JwtVerifier(secret), maxSize, Duration.ofSeconds(maxTtlSeconds),
+                revocationList);
+    }
+
+    // ✅ Kept current by RevocationPoller from AUTH-SERVICE's revocation feed
+    @Bean
+    public RevocationList revocationList(@Value("${security.revocations.expected:100000}") int expected,
+            @Value("${security.revocations.false-positive-rate:0.01}") double falsePositiveRate) {
+        return new RevocationList(expected, falsePositiveRate);
+    }
+
+    // ✅ Shared with API-GATEWAY, which signs the X-Auth-* headers it forwards; no default, startup fails without it
+    @Bean
+    public IdentityHeaders identityHeaders(@Value("${security.identity.secret}") String secret) {
+        return new IdentityHeaders(secret);
+    }
+
+    // Only used to poll AUTH-SERVICE for revocations
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate() {
+        return new RestTemplate();
+    }
+}
@@ -0,0 +1,2 @@
+-- GET /users/{email}
+CREATE INDEX idx_users_email ON users (email);